@@ -1,7 +1,10 @@
 package guru.springfamework.api.v1.mapper;
 
+import guru.springfamework.api.v1.model.LinkedCustomerDTO;
 import guru.springfamework.domain.Customer;
+import guru.springfamework.repositories.CustomerSummary;
 import guru.springframework.model.CustomerDTO;
+import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
@@ -14,11 +17,22 @@ public interface CustomerMapper {
     @Mappings({
             @Mapping(source = "firstName", target = "firstname"),
             @Mapping(source = "lastName", target = "lastname"),
+            @Mapping(target = "customerUrl", ignore = true),
     })
+    @BeanMapping(resultType = LinkedCustomerDTO.class)
     CustomerDTO customerToCustomerDTO(Customer customer);
+    @Mappings({
+            @Mapping(source = "firstName", target = "firstname"),
+            @Mapping(source = "lastName", target = "lastname"),
+            @Mapping(target = "customerUrl", ignore = true),
+    })
+    @BeanMapping(resultType = LinkedCustomerDTO.class)
+    CustomerDTO customerSummaryToCustomerDTO(CustomerSummary customerSummary);
     @Mappings({
             @Mapping(source = "firstname", target = "firstName"),
             @Mapping(source = "lastname", target = "lastName"),
+            @Mapping(target = "id", ignore = true),
+            @Mapping(target = "version", ignore = true),
     })
     Customer customerDtoToCustomer(CustomerDTO customerDTO);
 }
@@ -2,12 +2,19 @@ package guru.springfamework.api.v1.mapper;
 
 import guru.springfamework.api.v1.model.VendorDTO;
 import guru.springfamework.domain.Vendor;
+import guru.springfamework.repositories.VendorSummary;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 @Mapper
 public interface VendorMapper {
     VendorMapper INSTANCE = Mappers.getMapper(VendorMapper.class);
+    @Mapping(target = "vendorUrl", ignore = true)
     VendorDTO vendorToVendorDTO(Vendor vendor);
+    @Mapping(target = "vendorUrl", ignore = true)
+    VendorDTO vendorSummaryToVendorDTO(VendorSummary vendorSummary);
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Vendor vendorDtoToVendor(VendorDTO vendorDTO);
 }
@@ -0,0 +1,18 @@
+package guru.springfamework.api.v1.model;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeleteResultDTO {
+    @ApiModelProperty(value = "Distinct ids in the request")
+    private int requested;
+    @ApiModelProperty(value = "Ids that had a row; the others did not exist")
+    private int deleted;
+}
@@ -1,5 +1,6 @@
 package guru.springfamework.api.v1.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
@@ -11,4 +12,11 @@ import java.util.List;
 @AllArgsConstructor
 public class CategoryListDTO {
     List<CategoryDTO> categories;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    String nextUrl;
+
+    public CategoryListDTO(List<CategoryDTO> categories) {
+        this.categories = categories;
+    }
 }
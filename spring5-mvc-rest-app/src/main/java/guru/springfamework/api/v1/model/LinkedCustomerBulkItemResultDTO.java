@@ -0,0 +1,25 @@
+package guru.springfamework.api.v1.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import guru.springframework.model.BulkItemStatus;
+import guru.springframework.model.CustomerBulkItemResultDTO;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * The result of a created or updated customer in a bulk request, with the id its customerUrl is written from;
+ * see {@link LinkedCustomerDTO}.
+ */
+@Getter
+@Setter
+@JacksonXmlRootElement(localName = "CustomerBulkItemResultDTO")
+public class LinkedCustomerBulkItemResultDTO extends CustomerBulkItemResultDTO {
+    @JsonIgnore
+    private Long id;
+
+    public LinkedCustomerBulkItemResultDTO(BulkItemStatus status, Long id) {
+        setStatus(status);
+        this.id = id;
+    }
+}
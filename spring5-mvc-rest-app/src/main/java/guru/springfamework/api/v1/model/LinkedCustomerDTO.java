@@ -0,0 +1,19 @@
+package guru.springfamework.api.v1.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import guru.springframework.model.CustomerDTO;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A CustomerDTO as the services return it, with the id its customerUrl is written from, see ResourceLinksConfig.
+ * The id is not part of customer.xsd and is never serialized; on the wire this is a CustomerDTO.
+ */
+@Getter
+@Setter
+@JacksonXmlRootElement(localName = "CustomerDTO")
+public class LinkedCustomerDTO extends CustomerDTO {
+    @JsonIgnore
+    private Long id;
+}
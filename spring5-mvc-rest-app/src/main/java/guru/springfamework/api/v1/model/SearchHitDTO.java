@@ -0,0 +1,20 @@
+package guru.springfamework.api.v1.model;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHitDTO {
+    @ApiModelProperty(value = "customer or vendor")
+    private String type;
+    private String name;
+    private String url;
+    @ApiModelProperty(value = "Relevance; exact matches score above prefix matches, which score above typos")
+    private float score;
+}
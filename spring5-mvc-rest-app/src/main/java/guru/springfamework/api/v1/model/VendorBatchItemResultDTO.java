@@ -0,0 +1,32 @@
+package guru.springfamework.api.v1.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class VendorBatchItemResultDTO {
+    public enum Status {
+        CREATED, UPDATED, FAILED
+    }
+
+    private int index;
+    private Status status;
+    @JsonProperty("vendor_url")
+    private String vendorUrl;
+    private String error;
+    // what vendor_url is written from, see ResourceLinksConfig; a failed item has the client's vendorUrl instead
+    @JsonIgnore
+    private Long id;
+
+    public VendorBatchItemResultDTO(Status status, Long id) {
+        this.status = status;
+        this.id = id;
+    }
+}
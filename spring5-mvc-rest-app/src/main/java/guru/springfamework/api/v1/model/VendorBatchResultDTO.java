@@ -0,0 +1,33 @@
+package guru.springfamework.api.v1.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class VendorBatchResultDTO {
+    private int created;
+    private int updated;
+    private int failed;
+    private List<VendorBatchItemResultDTO> results = new ArrayList<>();
+
+    public void add(VendorBatchItemResultDTO result) {
+        results.add(result);
+
+        switch (result.getStatus()) {
+            case CREATED:
+                created++;
+                break;
+            case UPDATED:
+                updated++;
+                break;
+            default:
+                failed++;
+        }
+    }
+}
@@ -1,8 +1,8 @@
 package guru.springfamework.api.v1.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.annotations.ApiModelProperty;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -12,23 +12,31 @@ import java.util.Objects;
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 public class VendorDTO {
     @ApiModelProperty(value = "Name of the Vendor")
     private String name;
     @JsonProperty("vendor_url")
     private String vendorUrl;
+    // what vendor_url is written from, see ResourceLinksConfig
+    @JsonIgnore
+    private Long id;
+
+    public VendorDTO(String name, String vendorUrl) {
+        this.name = name;
+        this.vendorUrl = vendorUrl;
+    }
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         VendorDTO vendorDTO = (VendorDTO) o;
-        return Objects.equals(name, vendorDTO.name) && Objects.equals(vendorUrl, vendorDTO.vendorUrl);
+        return Objects.equals(name, vendorDTO.name) && Objects.equals(vendorUrl, vendorDTO.vendorUrl)
+                && Objects.equals(id, vendorDTO.id);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, vendorUrl);
+        return Objects.hash(name, vendorUrl, id);
     }
 }
@@ -1,5 +1,6 @@
 package guru.springfamework.api.v1.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -14,4 +15,12 @@ import java.util.List;
 @AllArgsConstructor
 public class VendorListDTO {
     List<VendorDTO> vendors;
+
+    @JsonProperty("next_url")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    String nextUrl;
+
+    public VendorListDTO(List<VendorDTO> vendors) {
+        this.vendors = vendors;
+    }
 }
@@ -48,13 +48,11 @@ public class Bootstrap implements CommandLineRunner {
 
     private void loadCustomers() {
         Customer customer1 = new Customer();
-        customer1.setId(1L);
         customer1.setFirstName("Michele");
         customer1.setLastName("Weston");
         customerRepository.save(customer1);
 
         Customer customer2 = new Customer();
-        customer2.setId(2L);
         customer2.setFirstName("Sam");
         customer2.setLastName("Axe");
         customerRepository.save(customer2);
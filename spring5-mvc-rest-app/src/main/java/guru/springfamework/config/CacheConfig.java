@@ -0,0 +1,16 @@
+package guru.springfamework.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caches are Caffeine backed; size, TTL and stats recording are set through spring.cache.caffeine.spec.
+ */
+@EnableCaching
+@Configuration
+public class CacheConfig {
+    public static final String VENDOR_CACHE = "vendors";
+    public static final String VENDOR_VERSION_CACHE = "vendorVersions";
+    public static final String CUSTOMER_CACHE = "customers";
+    public static final String CUSTOMER_VERSION_CACHE = "customerVersions";
+}
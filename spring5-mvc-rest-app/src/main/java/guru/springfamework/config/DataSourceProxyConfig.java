@@ -0,0 +1,50 @@
+package guru.springfamework.config;
+
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Wraps the DataSource with datasource-proxy so every statement reaches the QueryExecutionListener beans
+ * (SQL tracing, statement budgets). ResultSets are only proxied when a MethodExecutionListener bean asks
+ * for their calls, since that proxy sits on every row read.
+ */
+@Configuration
+public class DataSourceProxyConfig {
+
+    /**
+     * The listeners are looked up lazily: post-processors are created before the beans they depend on.
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(ObjectProvider<QueryExecutionListener> queryListeners,
+            ObjectProvider<MethodExecutionListener> methodListeners) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+
+                ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(beanName, (DataSource) bean);
+                queryListeners.orderedStream().forEach(builder::listener);
+
+                List<MethodExecutionListener> resultSetListeners = methodListeners.orderedStream()
+                        .collect(Collectors.toList());
+                if (!resultSetListeners.isEmpty()) {
+                    builder.proxyResultSet();
+                    resultSetListeners.forEach(builder::methodListener);
+                }
+                return builder.build();
+            }
+        };
+    }
+}
@@ -0,0 +1,78 @@
+package guru.springfamework.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every call into the service, repository and mapper beans as {@value #METRIC_NAME}, tagged with the
+ * layer, class, method and exception, so time spent in each layer can be compared per endpoint. The timer
+ * counts calls too, failed ones by their exception tag. Serialization is timed by the converters in
+ * {@link MetricsConfig} under the same name.
+ */
+@Aspect
+@Component
+// outermost, so cache hits are timed as the caller sees them
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class LayerMetricsAspect {
+    public static final String METRIC_NAME = "app.layer";
+
+    private final MeterRegistry meterRegistry;
+    // the timer of every successful call, per bean class and method, so the hot path skips the registry lookup
+    private final Map<Class<?>, Map<Method, Timer>> timers = new ConcurrentHashMap<>();
+
+    public LayerMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("guru.springfamework.config.LayerPointcuts.service()")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("service", joinPoint);
+    }
+
+    @Around("guru.springfamework.config.LayerPointcuts.repository()")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("repository", joinPoint);
+    }
+
+    @Around("guru.springfamework.config.LayerPointcuts.mapper()")
+    public Object timeMapper(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("mapper", joinPoint);
+    }
+
+    private Object time(String layer, ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            sample.stop(timer(meterRegistry, layer, LayerPointcuts.className(joinPoint),
+                    joinPoint.getSignature().getName(), e.getClass().getSimpleName()));
+            throw e;
+        }
+        sample.stop(timers
+                .computeIfAbsent(joinPoint.getThis().getClass(), beanClass -> new ConcurrentHashMap<>())
+                .computeIfAbsent(((MethodSignature) joinPoint.getSignature()).getMethod(), method ->
+                        timer(meterRegistry, layer, LayerPointcuts.className(joinPoint), method.getName(), "none")));
+        return result;
+    }
+
+    static Timer timer(MeterRegistry meterRegistry, String layer, String className, String method, String exception) {
+        return Timer.builder(METRIC_NAME)
+                .tag("layer", layer)
+                .tag("class", className)
+                .tag("method", method)
+                .tag("exception", exception)
+                .register(meterRegistry);
+    }
+}
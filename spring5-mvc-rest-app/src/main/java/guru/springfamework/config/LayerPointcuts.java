@@ -0,0 +1,57 @@
+package guru.springfamework.config;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.data.repository.Repository;
+import org.springframework.util.ClassUtils;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The application's layers as AspectJ pointcuts, shared by the metrics and tracing aspects.
+ */
+public class LayerPointcuts {
+    private static final Map<Class<?>, String> REPOSITORY_NAMES = new ConcurrentHashMap<>();
+
+    @Pointcut("execution(public * guru.springfamework.controllers.v1.*Controller.*(..))")
+    public void controller() {
+    }
+
+    @Pointcut("execution(public * guru.springfamework.services.*ServiceImpl.*(..))")
+    public void service() {
+    }
+
+    @Pointcut("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public void repository() {
+    }
+
+    @Pointcut("execution(public * guru.springfamework.api.v1.mapper.*.*(..))")
+    public void mapper() {
+    }
+
+    /**
+     * The class a join point belongs to, as it would be named in a stack trace of our own code.
+     */
+    public static String className(JoinPoint joinPoint) {
+        if (joinPoint.getThis() instanceof Repository) {
+            return repositoryName(joinPoint.getThis());
+        }
+        return ClassUtils.getUserClass(joinPoint.getTarget()).getSimpleName();
+    }
+
+    /**
+     * Repository calls land on a JDK proxy whose target is SimpleJpaRepository; the interface we declared is
+     * the useful name.
+     */
+    private static String repositoryName(Object proxy) {
+        return REPOSITORY_NAMES.computeIfAbsent(proxy.getClass(), proxyClass ->
+                Arrays.stream(ClassUtils.getAllInterfacesForClass(proxyClass))
+                        .filter(type -> Repository.class.isAssignableFrom(type))
+                        .filter(type -> type.getName().startsWith("guru.springfamework."))
+                        .map(Class::getSimpleName)
+                        .findFirst()
+                        .orElse(proxyClass.getSimpleName()));
+    }
+}
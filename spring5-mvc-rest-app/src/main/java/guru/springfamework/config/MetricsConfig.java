@@ -0,0 +1,59 @@
+package guru.springfamework.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.xml.MappingJackson2XmlHttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Replaces Spring Boot's Jackson JSON and XML converters with ones that time response serialization, tagged
+ * layer=serialization and the DTO class. Request time less the service and serialization time is what the
+ * rest of the MVC stack costs.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MappingJackson2HttpMessageConverter timedJsonHttpMessageConverter(ObjectMapper objectMapper,
+                                                                             MeterRegistry meterRegistry) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                try {
+                    super.writeInternal(object, type, outputMessage);
+                } finally {
+                    sample.stop(serializationTimer(meterRegistry, object, "writeJson"));
+                }
+            }
+        };
+    }
+
+    @Bean
+    public MappingJackson2XmlHttpMessageConverter timedXmlHttpMessageConverter(Jackson2ObjectMapperBuilder builder,
+                                                                               MeterRegistry meterRegistry) {
+        return new MappingJackson2XmlHttpMessageConverter(builder.createXmlMapper(true).build()) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                try {
+                    super.writeInternal(object, type, outputMessage);
+                } finally {
+                    sample.stop(serializationTimer(meterRegistry, object, "writeXml"));
+                }
+            }
+        };
+    }
+
+    static Timer serializationTimer(MeterRegistry meterRegistry, Object object, String method) {
+        return LayerMetricsAspect.timer(meterRegistry, "serialization", object.getClass().getSimpleName(), method, "none");
+    }
+}
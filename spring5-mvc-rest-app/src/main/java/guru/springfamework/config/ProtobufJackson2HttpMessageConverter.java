@@ -0,0 +1,90 @@
+package guru.springfamework.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.Assert;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads and writes the DTOs that have a message in rest-model's proto/api_v1.proto as Protobuf. It goes through
+ * Jackson's Protobuf format, so the DTOs themselves are encoded and need no generated counterparts; clients can
+ * generate theirs from the same file.
+ */
+public class ProtobufJackson2HttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+    public static final String APPLICATION_PROTOBUF_VALUE = "application/x-protobuf";
+    public static final MediaType APPLICATION_PROTOBUF = MediaType.valueOf(APPLICATION_PROTOBUF_VALUE);
+
+    static final String SCHEMA_LOCATION = "proto/api_v1.proto";
+
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, ProtobufSchema> schemas;
+
+    public ProtobufJackson2HttpMessageConverter(ObjectMapper objectMapper, Map<Class<?>, ProtobufSchema> schemas) {
+        super(APPLICATION_PROTOBUF);
+        Assert.isInstanceOf(ProtobufFactory.class, objectMapper.getFactory(), "ProtobufFactory required");
+        this.objectMapper = objectMapper;
+        this.schemas = schemas;
+    }
+
+    /**
+     * Loads the message of each class from {@value #SCHEMA_LOCATION}, where it is named after the class.
+     */
+    public static Map<Class<?>, ProtobufSchema> loadSchemas(Class<?>... types) throws IOException {
+        String proto = StreamUtils.copyToString(new ClassPathResource(SCHEMA_LOCATION).getInputStream(),
+                StandardCharsets.UTF_8);
+
+        Map<Class<?>, ProtobufSchema> schemas = new HashMap<>();
+        for (Class<?> type : types) {
+            schemas.put(type, ProtobufSchemaLoader.std.parse(proto, type.getSimpleName()));
+        }
+        return schemas;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return schemaFor(clazz) != null;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        try {
+            return objectMapper.readerFor(clazz).with(schemaFor(clazz)).readValue(inputMessage.getBody());
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("Protobuf parse error: " + e.getOriginalMessage(), e,
+                    inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object object, HttpOutputMessage outputMessage) throws IOException {
+        objectMapper.writer(schemaFor(object.getClass()))
+                .writeValue(StreamUtils.nonClosing(outputMessage.getBody()), object);
+    }
+
+    /**
+     * The message of the class or, for a subclass such as LinkedCustomerDTO, of the DTO it extends.
+     */
+    private ProtobufSchema schemaFor(Class<?> clazz) {
+        for (Class<?> type = clazz; type != null; type = type.getSuperclass()) {
+            ProtobufSchema schema = schemas.get(type);
+            if (schema != null) {
+                return schema;
+            }
+        }
+        return null;
+    }
+}
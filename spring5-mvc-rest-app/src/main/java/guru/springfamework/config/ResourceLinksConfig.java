@@ -0,0 +1,92 @@
+package guru.springfamework.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import guru.springfamework.api.v1.model.CategoryListDTO;
+import guru.springfamework.api.v1.model.LinkedCustomerBulkItemResultDTO;
+import guru.springfamework.api.v1.model.LinkedCustomerDTO;
+import guru.springfamework.api.v1.model.SearchHitDTO;
+import guru.springfamework.api.v1.model.VendorBatchItemResultDTO;
+import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.api.v1.model.VendorListDTO;
+import guru.springfamework.controllers.v1.CustomerController;
+import guru.springfamework.controllers.v1.ResourceLinkSerializer;
+import guru.springfamework.controllers.v1.ResourceLinkWriter;
+import guru.springfamework.controllers.v1.VendorController;
+import guru.springframework.model.CustomerBulkItemResultDTO;
+import guru.springframework.model.CustomerDTO;
+import guru.springframework.model.CustomerListDTO;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Serializes the resource URLs of the customer, vendor and search DTOs, and the next page links, as absolute links,
+ * see ResourceLinks. The vendor DTOs and the customer DTOs the services return, LinkedCustomerDTO and
+ * LinkedCustomerBulkItemResultDTO, carry the id, which is what the caches hold, and their URL is written from the
+ * collection path and that id by a ResourceLinkWriter; the mix-ins reach the classes generated from customer.xsd
+ * too. Spring Boot registers the module with both the JSON and the XML mapper.
+ */
+@Configuration
+public class ResourceLinksConfig {
+    private static final String VENDORS = VendorController.VENDOR_API_V1_URL + "/";
+
+    @Bean
+    public Module resourceLinksModule() {
+        SimpleModule module = new SimpleModule("ResourceLinks");
+        module.setMixInAnnotation(SearchHitDTO.class, SearchHitLinks.class);
+        module.setMixInAnnotation(CustomerListDTO.class, NextLinks.class);
+        module.setMixInAnnotation(VendorListDTO.class, NextLinks.class);
+        module.setMixInAnnotation(CategoryListDTO.class, NextLinks.class);
+        module.setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc,
+                                                             List<BeanPropertyWriter> beanProperties) {
+                Class<?> type = beanDesc.getBeanClass();
+                if (CustomerDTO.class.isAssignableFrom(type)) {
+                    link(beanProperties, "customerUrl", CustomerController.API_V1_CUSTOMERS,
+                            bean -> bean instanceof LinkedCustomerDTO ? ((LinkedCustomerDTO) bean).getId() : null);
+                } else if (CustomerBulkItemResultDTO.class.isAssignableFrom(type)) {
+                    link(beanProperties, "customerUrl", CustomerController.API_V1_CUSTOMERS,
+                            bean -> bean instanceof LinkedCustomerBulkItemResultDTO
+                                    ? ((LinkedCustomerBulkItemResultDTO) bean).getId() : null);
+                } else if (type == VendorDTO.class) {
+                    link(beanProperties, "vendor_url", VENDORS, bean -> ((VendorDTO) bean).getId());
+                } else if (type == VendorBatchItemResultDTO.class) {
+                    link(beanProperties, "vendor_url", VENDORS, bean -> ((VendorBatchItemResultDTO) bean).getId());
+                }
+                return beanProperties;
+            }
+        });
+        return module;
+    }
+
+    private static void link(List<BeanPropertyWriter> beanProperties, String urlProperty, String prefix,
+                             Function<Object, Long> idOf) {
+        for (int i = 0; i < beanProperties.size(); i++) {
+            if (beanProperties.get(i).getName().equals(urlProperty)) {
+                beanProperties.set(i, new ResourceLinkWriter(beanProperties.get(i), prefix, idOf));
+            }
+        }
+    }
+
+    abstract static class SearchHitLinks {
+        @JsonSerialize(using = ResourceLinkSerializer.class)
+        @JsonInclude(JsonInclude.Include.NON_EMPTY)
+        abstract String getUrl();
+    }
+
+    abstract static class NextLinks {
+        @JsonSerialize(using = ResourceLinkSerializer.class)
+        @JsonInclude(JsonInclude.Include.NON_EMPTY)
+        abstract String getNextUrl();
+    }
+}
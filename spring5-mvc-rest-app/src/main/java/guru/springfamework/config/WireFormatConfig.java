@@ -0,0 +1,97 @@
+package guru.springfamework.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import guru.springfamework.api.v1.model.CategoryDTO;
+import guru.springfamework.api.v1.model.CategoryListDTO;
+import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.api.v1.model.VendorListDTO;
+import guru.springframework.model.CustomerDTO;
+import guru.springframework.model.CustomerListDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Binary representations for service-to-service calls, picked by the Accept header: application/cbor and
+ * application/x-jackson-smile for every DTO, application/x-protobuf for the customer, vendor and category shapes.
+ * The mappers come from Spring Boot's builder, so they share the JSON mapper's modules, and serialization is
+ * timed like in MetricsConfig.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter timedCborHttpMessageConverter(Jackson2ObjectMapperBuilder builder,
+                                                                                 MeterRegistry meterRegistry) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build()) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                try {
+                    super.writeInternal(object, type, outputMessage);
+                } finally {
+                    sample.stop(MetricsConfig.serializationTimer(meterRegistry, object, "writeCbor"));
+                }
+            }
+        };
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter timedSmileHttpMessageConverter(Jackson2ObjectMapperBuilder builder,
+                                                                                   MeterRegistry meterRegistry) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build()) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                try {
+                    super.writeInternal(object, type, outputMessage);
+                } finally {
+                    sample.stop(MetricsConfig.serializationTimer(meterRegistry, object, "writeSmile"));
+                }
+            }
+        };
+    }
+
+    /**
+     * Appends the Protobuf converter to the list instead of declaring it as a bean: Spring Boot puts converter
+     * beans that replace none of its defaults first, which would make Protobuf the answer to a wildcard Accept.
+     */
+    @Bean
+    public WebMvcConfigurer protobufConverterConfigurer(Jackson2ObjectMapperBuilder builder,
+                                                        MeterRegistry meterRegistry) throws IOException {
+        HttpMessageConverter<Object> converter = new ProtobufJackson2HttpMessageConverter(
+                builder.factory(new ProtobufFactory()).build(),
+                ProtobufJackson2HttpMessageConverter.loadSchemas(CustomerDTO.class, CustomerListDTO.class,
+                        VendorDTO.class, VendorListDTO.class, CategoryDTO.class, CategoryListDTO.class)) {
+            @Override
+            protected void writeInternal(Object object, HttpOutputMessage outputMessage) throws IOException {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                try {
+                    super.writeInternal(object, outputMessage);
+                } finally {
+                    sample.stop(MetricsConfig.serializationTimer(meterRegistry, object, "writeProtobuf"));
+                }
+            }
+        };
+
+        return new WebMvcConfigurer() {
+            @Override
+            public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+                converters.add(converter);
+            }
+        };
+    }
+}
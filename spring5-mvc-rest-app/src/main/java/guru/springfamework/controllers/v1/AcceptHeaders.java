@@ -0,0 +1,42 @@
+package guru.springfamework.controllers.v1;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+/**
+ * Picks the representation for handlers that render their body themselves instead of going through
+ * the message converters.
+ */
+final class AcceptHeaders {
+
+    private AcceptHeaders() {
+    }
+
+    /**
+     * Returns the first of {@code supported} that the client accepts, in the client's order of preference,
+     * falling back to the first supported type when the header is missing or unparseable.
+     */
+    static MediaType select(String accept, List<MediaType> supported) {
+        if (StringUtils.hasText(accept)) {
+            try {
+                List<MediaType> acceptable = MediaType.parseMediaTypes(accept);
+                MediaType.sortBySpecificityAndQuality(acceptable);
+
+                for (MediaType acceptableType : acceptable) {
+                    for (MediaType supportedType : supported) {
+                        if (acceptableType.isCompatibleWith(supportedType)) {
+                            return supportedType;
+                        }
+                    }
+                }
+            } catch (InvalidMediaTypeException e) {
+                // fall through to the default representation
+            }
+        }
+
+        return supported.get(0);
+    }
+}
@@ -0,0 +1,200 @@
+package guru.springfamework.controllers.v1;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springfamework.api.v1.model.BulkDeleteResultDTO;
+import guru.springfamework.services.AsyncCustomerService;
+import guru.springfamework.services.CustomerService;
+import guru.springframework.model.CustomerBulkResultDTO;
+import guru.springframework.model.CustomerDTO;
+import guru.springframework.model.CustomerListDTO;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * {@link CustomerController} with async.enabled=true: the JPA work runs on the bounded JpaExecutor and the
+ * servlet thread is handed back at once. A full queue is answered with 503.
+ */
+@Api(description = "This is my Customer Controller")
+@Controller
+@ConditionalOnProperty(name = "async.enabled", havingValue = "true")
+@RequestMapping(CustomerController.API_V1_CUSTOMERS)
+public class AsyncCustomerController {
+    private final AsyncCustomerService asyncCustomerService;
+    private final CustomerService customerService;
+    private final ObjectMapper objectMapper;
+
+    public AsyncCustomerController(AsyncCustomerService asyncCustomerService, CustomerService customerService,
+                                   ObjectMapper objectMapper) {
+        this.asyncCustomerService = asyncCustomerService;
+        this.customerService = customerService;
+        this.objectMapper = objectMapper;
+    }
+
+    @ApiOperation(value = "This will get a list of customers",
+        notes = "These are some notes about the API.")
+    @GetMapping
+    public CompletableFuture<ResponseEntity<CustomerListDTO>> getListOfCustomer() {
+        return asyncCustomerService.getAllCustomers().thenApply(customers -> {
+            CustomerListDTO customerListDTO = new CustomerListDTO();
+            customerListDTO.getCustomers().addAll(customers);
+            return new ResponseEntity<>(customerListDTO, HttpStatus.OK);
+        });
+    }
+
+    @ApiOperation(value = "This will get a page of customers",
+        notes = "Keyset pagination: pass the id of the last customer seen as 'after', or follow nextUrl.")
+    @GetMapping(params = "limit")
+    public CompletableFuture<ResponseEntity<CustomerListDTO>> getCustomerPage(
+            @RequestParam(required = false) Long after, @RequestParam Integer limit) {
+        return asyncCustomerService.getCustomerPage(after, limit)
+                .thenApply(customerListDTO -> new ResponseEntity<>(customerListDTO, HttpStatus.OK));
+    }
+
+    @ApiOperation(value = "This will stream every customer",
+        notes = "Written as a JSON array, or as newline-delimited JSON when application/x-ndjson is accepted.")
+    @GetMapping(value = "/export",
+        produces = {MediaType.APPLICATION_JSON_VALUE, JsonStreamingResponses.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportCustomers(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        // already written off the servlet thread, by the MVC task executor
+        return JsonStreamingResponses.stream(objectMapper, accept, customerService::exportCustomers);
+    }
+
+    @ApiOperation(value = "This will search customers by name",
+        notes = "Matches lastname and/or firstname exactly, or as prefixes with prefix=true. Paginated like the list.")
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
+    public CompletableFuture<ResponseEntity<CustomerListDTO>> searchCustomers(
+            @RequestParam(required = false) String lastname, @RequestParam(required = false) String firstname,
+            @RequestParam(defaultValue = "false") boolean prefix, @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        String lastName = CustomerController.nameOrNull(lastname);
+        String firstName = CustomerController.nameOrNull(firstname);
+        if (lastName == null && firstName == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        return asyncCustomerService.searchCustomers(lastName, firstName, prefix, after, limit)
+                .thenApply(customerListDTO -> new ResponseEntity<>(customerListDTO, HttpStatus.OK));
+    }
+
+    @GetMapping(value = "/search", produces = JsonStreamingResponses.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamCustomerSearch(
+            @RequestParam(required = false) String lastname, @RequestParam(required = false) String firstname,
+            @RequestParam(defaultValue = "false") boolean prefix) {
+        String lastName = CustomerController.nameOrNull(lastname);
+        String firstName = CustomerController.nameOrNull(firstname);
+        if (lastName == null && firstName == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return JsonStreamingResponses.<CustomerDTO>stream(objectMapper, JsonStreamingResponses.APPLICATION_NDJSON_VALUE,
+                consumer -> customerService.exportCustomerSearch(lastName, firstName, prefix, consumer));
+    }
+
+    @GetMapping("/{id}")
+    public CompletableFuture<ResponseEntity<CustomerDTO>> getCustomerById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return asyncCustomerService.getCustomerVersion(id).thenCompose(version -> {
+            String eTag = VersionETags.of(version);
+
+            if (VersionETags.matchesIfNoneMatch(ifNoneMatch, eTag)) {
+                return CompletableFuture.completedFuture(
+                        ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).<CustomerDTO>build());
+            }
+            return asyncCustomerService.getCustomerById(id)
+                    .thenApply(customerDTO -> ResponseEntity.ok().eTag(eTag).body(customerDTO));
+        });
+    }
+
+    @PostMapping
+    public CompletableFuture<ResponseEntity<CustomerDTO>> createNewCustomer(@RequestBody CustomerDTO customerDTO){
+        return asyncCustomerService.createNewCustomer(customerDTO)
+                .thenApply(created -> new ResponseEntity<>(created, HttpStatus.CREATED));
+    }
+
+    @ApiOperation(value = "This will create or update many customers at once",
+        notes = "Customers with a customerUrl are updated and the rest created; reports the outcome of every "
+            + "customer by its position in the request.")
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
+    public CompletableFuture<ResponseEntity<CustomerBulkResultDTO>> upsertCustomers(
+            @RequestBody CustomerListDTO customerListDTO) {
+        return asyncCustomerService.upsertCustomers(customerListDTO.getCustomers().iterator())
+                .thenApply(result -> new ResponseEntity<>(result, HttpStatus.OK));
+    }
+
+    @PostMapping(value = "/bulk", consumes = JsonStreamingResponses.APPLICATION_NDJSON_VALUE)
+    public CompletableFuture<ResponseEntity<CustomerBulkResultDTO>> upsertCustomersFromNdjson(InputStream body)
+            throws IOException {
+        // the body is read line by line on the executor thread, and the iterator closed once it is done
+        NdjsonIterator<CustomerDTO> customerDTOS =
+                new NdjsonIterator<>(objectMapper.readerFor(CustomerDTO.class), body);
+        CompletableFuture<CustomerBulkResultDTO> result;
+        try {
+            result = asyncCustomerService.upsertCustomers(customerDTOS);
+        } catch (RejectedExecutionException e) {
+            customerDTOS.close();
+            throw e;
+        }
+        return result.whenComplete((created, e) -> closeQuietly(customerDTOS))
+                .thenApply(created -> new ResponseEntity<>(created, HttpStatus.OK));
+    }
+
+    @ApiOperation(value = "This will delete many customers at once",
+        notes = "Takes a JSON array of customer ids; ids without a customer are skipped and left out of the deleted count.")
+    @PostMapping(value = "/bulk-delete", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<BulkDeleteResultDTO>> deleteCustomers(@RequestBody List<Long> ids) {
+        return asyncCustomerService.deleteCustomersById(ids)
+                .thenApply(result -> new ResponseEntity<>(result, HttpStatus.OK));
+    }
+
+    @PutMapping("/{id}")
+    public CompletableFuture<ResponseEntity<CustomerDTO>> updateCustomer(@PathVariable Long id,
+            @RequestBody CustomerDTO customerDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        return asyncCustomerService.saveCustomerByDTO(id, customerDTO, VersionETags.fromIfMatch(ifMatch))
+                .thenApply(saved -> new ResponseEntity<>(saved, HttpStatus.OK));
+    }
+
+    @PatchMapping("/{id}")
+    public CompletableFuture<ResponseEntity<CustomerDTO>> patchCustomer(@PathVariable Long id,
+            @RequestBody CustomerDTO customerDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        return asyncCustomerService.patchCustomer(id, customerDTO, VersionETags.fromIfMatch(ifMatch))
+                .thenApply(patched -> new ResponseEntity<>(patched, HttpStatus.OK));
+    }
+
+    @DeleteMapping("/{id}")
+    public CompletableFuture<ResponseEntity<Void>> deleteCustomer(@PathVariable Long id){
+        return asyncCustomerService.deleteCustomerById(id)
+                .thenApply(deleted -> new ResponseEntity<Void>(HttpStatus.OK));
+    }
+
+    private static void closeQuietly(NdjsonIterator<CustomerDTO> customerDTOS) {
+        try {
+            customerDTOS.close();
+        } catch (IOException e) {
+            // the body has been read as far as it will be; nothing to recover
+        }
+    }
+}
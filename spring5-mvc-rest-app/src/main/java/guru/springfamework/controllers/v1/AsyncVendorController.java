@@ -0,0 +1,141 @@
+package guru.springfamework.controllers.v1;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springfamework.api.v1.model.BulkDeleteResultDTO;
+import guru.springfamework.api.v1.model.VendorBatchResultDTO;
+import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.api.v1.model.VendorListDTO;
+import guru.springfamework.services.AsyncVendorService;
+import guru.springfamework.services.VendorService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link VendorController} with async.enabled=true: the JPA work runs on the bounded JpaExecutor and the
+ * servlet thread is handed back at once. A full queue is answered with 503.
+ */
+@RestController
+@ConditionalOnProperty(name = "async.enabled", havingValue = "true")
+@Api(description = "This is my Vendor API")
+@RequestMapping(VendorController.VENDOR_API_V1_URL)
+public class AsyncVendorController {
+    private final AsyncVendorService asyncVendorService;
+    private final VendorService vendorService;
+    private final ObjectMapper objectMapper;
+
+    public AsyncVendorController(AsyncVendorService asyncVendorService, VendorService vendorService,
+                                 ObjectMapper objectMapper) {
+        this.asyncVendorService = asyncVendorService;
+        this.vendorService = vendorService;
+        this.objectMapper = objectMapper;
+    }
+
+    @ApiOperation(value = "View List of Vendors", notes = "These are some API Notes")
+    @GetMapping
+    @ResponseStatus(HttpStatus.OK)
+    public CompletableFuture<VendorListDTO> getVendorList() {
+        return asyncVendorService.getAllVendors();
+    }
+
+    @ApiOperation(value = "View a page of Vendors",
+            notes = "Keyset pagination: pass the id of the last vendor seen as 'after', or follow next_url.")
+    @GetMapping(params = "limit")
+    @ResponseStatus(HttpStatus.OK)
+    public CompletableFuture<VendorListDTO> getVendorPage(@RequestParam(required = false) Long after,
+                                                          @RequestParam Integer limit) {
+        return asyncVendorService.getVendorPage(after, limit);
+    }
+
+    @ApiOperation(value = "Stream every Vendor",
+            notes = "Written as a JSON array, or as newline-delimited JSON when application/x-ndjson is accepted.")
+    @GetMapping(value = "/export",
+            produces = {MediaType.APPLICATION_JSON_VALUE, JsonStreamingResponses.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportVendors(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        // already written off the servlet thread, by the MVC task executor
+        return JsonStreamingResponses.stream(objectMapper, accept, vendorService::exportVendors);
+    }
+
+    @ApiOperation(value = "Get Vendor By Id")
+    @GetMapping("/{id}")
+    public CompletableFuture<ResponseEntity<VendorDTO>> getVendorById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return asyncVendorService.getVendorVersion(id).thenCompose(version -> {
+            String eTag = VersionETags.of(version);
+
+            if (VersionETags.matchesIfNoneMatch(ifNoneMatch, eTag)) {
+                return CompletableFuture.completedFuture(
+                        ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).<VendorDTO>build());
+            }
+            return asyncVendorService.getVendorById(id)
+                    .thenApply(vendorDTO -> ResponseEntity.ok().eTag(eTag).body(vendorDTO));
+        });
+    }
+
+    @ApiOperation(value = "Create a new vendor")
+    @PostMapping
+    public CompletableFuture<ResponseEntity<VendorDTO>> createNewVendor(@RequestBody VendorDTO vendorDTO) {
+        return asyncVendorService.createNewVendor(vendorDTO)
+                .thenApply(created -> new ResponseEntity<>(created, HttpStatus.CREATED));
+    }
+
+    @ApiOperation(value = "Create or update many vendors at once",
+            notes = "Vendors with a vendor_url are updated, the rest are created; the outcome of each is reported by position.")
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public CompletableFuture<VendorBatchResultDTO> upsertVendors(@RequestBody VendorListDTO vendorListDTO) {
+        return asyncVendorService.upsertVendors(vendorListDTO.getVendors().iterator());
+    }
+
+    @ApiOperation(value = "Delete many vendors at once",
+            notes = "Takes a JSON array of vendor ids; ids without a vendor are skipped and left out of the deleted count.")
+    @PostMapping("/batch-delete")
+    @ResponseStatus(HttpStatus.OK)
+    public CompletableFuture<BulkDeleteResultDTO> deleteVendors(@RequestBody List<Long> ids) {
+        return asyncVendorService.deleteVendorsById(ids);
+    }
+
+    @ApiOperation(value = "Update a existing vendor")
+    @PutMapping("/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public CompletableFuture<VendorDTO> updateVendor(@PathVariable Long id, @RequestBody VendorDTO vendorDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return asyncVendorService.saveVendorByDto(id, vendorDTO, VersionETags.fromIfMatch(ifMatch));
+    }
+
+    @ApiOperation(value = "Update a vendor property")
+    @PatchMapping("/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public CompletableFuture<VendorDTO> patchVendor(@PathVariable Long id, @RequestBody VendorDTO vendorDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return asyncVendorService.patchVendor(id, vendorDTO, VersionETags.fromIfMatch(ifMatch));
+    }
+
+    @ApiOperation(value = "Delete a vendor")
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public CompletableFuture<Void> deleteVendor(@PathVariable Long id) {
+        return asyncVendorService.deleteVendorById(id);
+    }
+}
@@ -3,33 +3,63 @@ package guru.springfamework.controllers.v1;
 import guru.springfamework.api.v1.model.CategoryDTO;
 import guru.springfamework.api.v1.model.CategoryListDTO;
 import guru.springfamework.services.CategoryService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Arrays;
+import java.util.List;
+
 @RestController
 @RequestMapping(CategoryController.API_V1_CATEGORIES)
 public class CategoryController {
     public static final String API_V1_CATEGORIES = "/api/v1/categories";
 
+    private static final List<MediaType> LIST_MEDIA_TYPES = Arrays.asList(MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML);
+
     private final CategoryService categoryService;
+    private final CategoryListResponseCache categoryListResponseCache;
 
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, CategoryListResponseCache categoryListResponseCache) {
         this.categoryService = categoryService;
+        this.categoryListResponseCache = categoryListResponseCache;
     }
 
-    @GetMapping
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
+    public ResponseEntity<byte[]> getAllCategories(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        CategoryListResponseCache.Representation representation =
+                categoryListResponseCache.get(AcceptHeaders.select(accept, LIST_MEDIA_TYPES));
+
+        // a matching If-None-Match is answered with 304 by the return value handler
+        return ResponseEntity.ok()
+                .contentType(representation.getMediaType())
+                .eTag(representation.getETag())
+                .body(representation.getBody());
+    }
+
+    @GetMapping(params = "limit")
     @ResponseStatus(HttpStatus.OK)
-    public CategoryListDTO getAllCategories() {
-        return new CategoryListDTO(categoryService.getAllCategories());
+    public CategoryListDTO getCategoryPage(@RequestParam(required = false) Long after, @RequestParam Integer limit) {
+        return categoryService.getCategoryPage(after, limit);
     }
 
     @GetMapping("/{name}")
-    @ResponseStatus(HttpStatus.OK)
-    public CategoryDTO getCategoryByName(@PathVariable String name) {
-        return categoryService.getCategoryByName(name);
+    public ResponseEntity<CategoryDTO> getCategoryByName(@PathVariable String name) {
+        // looked up first, so an unknown name is a 404 whatever the catalog version
+        CategoryDTO categoryDTO = categoryService.getCategoryByName(name);
+
+        // a matching If-None-Match is answered with 304 by the return value handler, before serialization
+        return ResponseEntity.ok()
+                .eTag(categoryService.getCatalogVersion())
+                .body(categoryDTO);
     }
 }
@@ -0,0 +1,91 @@
+package guru.springfamework.controllers.v1;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springfamework.api.v1.model.CategoryDTO;
+import guru.springfamework.api.v1.model.CategoryListDTO;
+import guru.springfamework.services.CategoryService;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.util.List;
+
+/**
+ * Holds the category list already rendered as JSON and XML. The bodies are rebuilt only when the category
+ * service hands out a different list instance, which happens once per catalog change.
+ */
+@Component
+public class CategoryListResponseCache {
+    private final CategoryService categoryService;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper xmlMapper;
+
+    private volatile Rendered rendered;
+
+    public CategoryListResponseCache(CategoryService categoryService, ObjectMapper objectMapper) {
+        this.categoryService = categoryService;
+        this.jsonMapper = objectMapper;
+        this.xmlMapper = Jackson2ObjectMapperBuilder.xml().build();
+    }
+
+    public Representation get(MediaType mediaType) {
+        List<CategoryDTO> categories = categoryService.getAllCategories();
+        Rendered current = rendered;
+
+        if (current == null || current.source != categories) {
+            current = new Rendered(categories,
+                    render(jsonMapper, categories, MediaType.APPLICATION_JSON),
+                    render(xmlMapper, categories, MediaType.APPLICATION_XML));
+            rendered = current;
+        }
+
+        return MediaType.APPLICATION_XML.isCompatibleWith(mediaType) ? current.xml : current.json;
+    }
+
+    private Representation render(ObjectMapper mapper, List<CategoryDTO> categories, MediaType mediaType) {
+        try {
+            byte[] body = mapper.writeValueAsBytes(new CategoryListDTO(categories));
+            return new Representation(mediaType, body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not render category list as " + mediaType, e);
+        }
+    }
+
+    public static final class Representation {
+        private final MediaType mediaType;
+        private final byte[] body;
+        private final String eTag;
+
+        private Representation(MediaType mediaType, byte[] body, String eTag) {
+            this.mediaType = mediaType;
+            this.body = body;
+            this.eTag = eTag;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+    }
+
+    private static final class Rendered {
+        private final List<CategoryDTO> source;
+        private final Representation json;
+        private final Representation xml;
+
+        private Rendered(List<CategoryDTO> source, Representation json, Representation xml) {
+            this.source = source;
+            this.json = json;
+            this.xml = xml;
+        }
+    }
+}
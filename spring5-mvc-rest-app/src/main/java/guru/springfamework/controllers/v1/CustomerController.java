@@ -1,13 +1,20 @@
 package guru.springfamework.controllers.v1;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springfamework.api.v1.model.BulkDeleteResultDTO;
 import guru.springfamework.services.CustomerService;
+import guru.springframework.model.CustomerBulkResultDTO;
 import guru.springframework.model.CustomerDTO;
 import guru.springframework.model.CustomerListDTO;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -15,18 +22,29 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 
 @Api(description = "This is my Customer Controller")
 @Controller
+@ConditionalOnProperty(name = "async.enabled", havingValue = "false", matchIfMissing = true)
 @RequestMapping(CustomerController.API_V1_CUSTOMERS)
 public class CustomerController {
     public static final String API_V1_CUSTOMERS = "/api/v1/customers/";
 
     private final CustomerService customerService;
+    private final ObjectMapper objectMapper;
 
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService, ObjectMapper objectMapper) {
         this.customerService = customerService;
+        this.objectMapper = objectMapper;
     }
 
     @ApiOperation(value = "This will get a list of customers",
@@ -38,9 +56,69 @@ public class CustomerController {
         return new ResponseEntity<>(customerListDTO, HttpStatus.OK);
     }
 
+    @ApiOperation(value = "This will get a page of customers",
+        notes = "Keyset pagination: pass the id of the last customer seen as 'after', or follow nextUrl.")
+    @GetMapping(params = "limit")
+    public ResponseEntity<CustomerListDTO> getCustomerPage(@RequestParam(required = false) Long after,
+                                                           @RequestParam Integer limit) {
+        return new ResponseEntity<>(customerService.getCustomerPage(after, limit), HttpStatus.OK);
+    }
+
+    @ApiOperation(value = "This will stream every customer",
+        notes = "Written as a JSON array, or as newline-delimited JSON when application/x-ndjson is accepted.")
+    @GetMapping(value = "/export",
+        produces = {MediaType.APPLICATION_JSON_VALUE, JsonStreamingResponses.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportCustomers(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return JsonStreamingResponses.stream(objectMapper, accept, customerService::exportCustomers);
+    }
+
+    @ApiOperation(value = "This will search customers by name",
+        notes = "Matches lastname and/or firstname exactly, or as prefixes with prefix=true. Paginated like the list.")
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
+    public ResponseEntity<CustomerListDTO> searchCustomers(@RequestParam(required = false) String lastname,
+                                                           @RequestParam(required = false) String firstname,
+                                                           @RequestParam(defaultValue = "false") boolean prefix,
+                                                           @RequestParam(required = false) Long after,
+                                                           @RequestParam(required = false) Integer limit) {
+        String lastName = nameOrNull(lastname);
+        String firstName = nameOrNull(firstname);
+        if (lastName == null && firstName == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return new ResponseEntity<>(customerService.searchCustomers(lastName, firstName, prefix, after, limit),
+                HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/search", produces = JsonStreamingResponses.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamCustomerSearch(@RequestParam(required = false) String lastname,
+                                                                      @RequestParam(required = false) String firstname,
+                                                                      @RequestParam(defaultValue = "false") boolean prefix) {
+        String lastName = nameOrNull(lastname);
+        String firstName = nameOrNull(firstname);
+        if (lastName == null && firstName == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return JsonStreamingResponses.<CustomerDTO>stream(objectMapper, JsonStreamingResponses.APPLICATION_NDJSON_VALUE,
+                consumer -> customerService.exportCustomerSearch(lastName, firstName, prefix, consumer));
+    }
+
+    /**
+     * Blank search names are treated as absent, so they never turn into a filter matching nothing.
+     */
+    static String nameOrNull(String name) {
+        return StringUtils.hasText(name) ? name.trim() : null;
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<CustomerDTO> getCustomerById(@PathVariable Long id) {
-        return new ResponseEntity<>(customerService.getCustomerById(id), HttpStatus.OK);
+    public ResponseEntity<CustomerDTO> getCustomerById(@PathVariable Long id, WebRequest webRequest) {
+        String eTag = VersionETags.of(customerService.getCustomerVersion(id));
+
+        // answer a matching If-None-Match from the version alone, without loading or serializing the customer
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(customerService.getCustomerById(id));
     }
 
     @PostMapping
@@ -49,15 +127,43 @@ public class CustomerController {
                 HttpStatus.CREATED);
     }
 
+    @ApiOperation(value = "This will create or update many customers at once",
+        notes = "Customers with a customerUrl are updated and the rest created; reports the outcome of every "
+            + "customer by its position in the request.")
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
+    public ResponseEntity<CustomerBulkResultDTO> upsertCustomers(@RequestBody CustomerListDTO customerListDTO) {
+        return new ResponseEntity<>(customerService.upsertCustomers(customerListDTO.getCustomers().iterator()),
+                HttpStatus.OK);
+    }
+
+    @PostMapping(value = "/bulk", consumes = JsonStreamingResponses.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<CustomerBulkResultDTO> upsertCustomersFromNdjson(InputStream body) throws IOException {
+        // read one line at a time so the request body is never held in memory as a whole, and a malformed line
+        // fails only its own item
+        try (NdjsonIterator<CustomerDTO> customerDTOS =
+                     new NdjsonIterator<>(objectMapper.readerFor(CustomerDTO.class), body)) {
+            return new ResponseEntity<>(customerService.upsertCustomers(customerDTOS), HttpStatus.OK);
+        }
+    }
+
+    @ApiOperation(value = "This will delete many customers at once",
+        notes = "Takes a JSON array of customer ids; ids without a customer are skipped and left out of the deleted count.")
+    @PostMapping(value = "/bulk-delete", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkDeleteResultDTO> deleteCustomers(@RequestBody List<Long> ids) {
+        return new ResponseEntity<>(customerService.deleteCustomersById(ids), HttpStatus.OK);
+    }
+
     @PutMapping("/{id}")
-    public ResponseEntity<CustomerDTO> updateCustomer(@PathVariable Long id, @RequestBody CustomerDTO customerDTO){
-        return new ResponseEntity<>(customerService.saveCustomerByDTO(id, customerDTO),
+    public ResponseEntity<CustomerDTO> updateCustomer(@PathVariable Long id, @RequestBody CustomerDTO customerDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        return new ResponseEntity<>(customerService.saveCustomerByDTO(id, customerDTO, VersionETags.fromIfMatch(ifMatch)),
                 HttpStatus.OK);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<CustomerDTO> patchCustomer(@PathVariable Long id, @RequestBody CustomerDTO customerDTO){
-        return new ResponseEntity<>(customerService.patchCustomer(id, customerDTO),
+    public ResponseEntity<CustomerDTO> patchCustomer(@PathVariable Long id, @RequestBody CustomerDTO customerDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        return new ResponseEntity<>(customerService.patchCustomer(id, customerDTO, VersionETags.fromIfMatch(ifMatch)),
                 HttpStatus.OK);
     }
 
@@ -0,0 +1,66 @@
+package guru.springfamework.controllers.v1;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Writes DTOs to the response as a producer hands them over, either as one JSON array or as
+ * newline-delimited JSON, so an export holds a single row in memory no matter how large the table is.
+ */
+public final class JsonStreamingResponses {
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final MediaType APPLICATION_NDJSON = MediaType.valueOf(APPLICATION_NDJSON_VALUE);
+
+    private static final List<MediaType> SUPPORTED = Arrays.asList(MediaType.APPLICATION_JSON, APPLICATION_NDJSON);
+
+    private JsonStreamingResponses() {
+    }
+
+    public static <T> ResponseEntity<StreamingResponseBody> stream(ObjectMapper objectMapper, String accept,
+                                                                   Consumer<Consumer<T>> producer) {
+        MediaType mediaType = AcceptHeaders.select(accept, SUPPORTED);
+        boolean ndjson = APPLICATION_NDJSON.equals(mediaType);
+        // flushing after every row would turn the export into one network write per row; the links are resolved
+        // here because the body is written on another thread, which cannot see the request
+        ObjectWriter writer = ResourceLinks.forCurrentRequest()
+                .applyTo(objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE));
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = writer.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+
+                if (!ndjson) {
+                    generator.writeStartArray();
+                }
+                producer.accept(dto -> {
+                    try {
+                        writer.writeValue(generator, dto);
+                        if (ndjson) {
+                            generator.writeRaw('\n');
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                if (!ndjson) {
+                    generator.writeEndArray();
+                }
+            }
+        };
+
+        return ResponseEntity.status(HttpStatus.OK).contentType(mediaType).body(body);
+    }
+}
@@ -0,0 +1,67 @@
+package guru.springfamework.controllers.v1;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads a newline-delimited JSON request body one line at a time. Every line is parsed on its own, so a
+ * malformed line fails only its own {@link #next()} and the lines after it are still read, which a single
+ * parser over the whole body cannot recover from.
+ */
+final class NdjsonIterator<T> implements Iterator<T>, Closeable {
+    private final ObjectReader reader;
+    private final BufferedReader lines;
+    private String nextLine;
+
+    NdjsonIterator(ObjectReader reader, InputStream body) {
+        this.reader = reader;
+        this.lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (nextLine == null) {
+                String line = lines.readLine();
+                if (line == null) {
+                    return false;
+                }
+                if (!line.trim().isEmpty()) {
+                    nextLine = line;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        String line = nextLine;
+        nextLine = null;
+        try {
+            return reader.readValue(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lines.close();
+    }
+}
@@ -0,0 +1,28 @@
+package guru.springfamework.controllers.v1;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes a relative resource path as an absolute link, see {@link ResourceLinks}. Properties using it should be
+ * {@code @JsonInclude(NON_EMPTY)}, which is what leaves them out under {@code ?links=false}.
+ */
+public class ResourceLinkSerializer extends StdSerializer<String> {
+
+    public ResourceLinkSerializer() {
+        super(String.class);
+    }
+
+    @Override
+    public void serialize(String path, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        ResourceLinks.of(provider).write(path, generator);
+    }
+
+    @Override
+    public boolean isEmpty(SerializerProvider provider, String path) {
+        return path == null || path.isEmpty() || !ResourceLinks.of(provider).isEnabled();
+    }
+}
@@ -0,0 +1,45 @@
+package guru.springfamework.controllers.v1;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+
+import java.util.function.Function;
+
+/**
+ * Writes a DTO's URL property from the id it carries: the link is the collection prefix followed by the id, see
+ * {@link ResourceLinks}, so no path is built per row. A DTO without an id, such as a failed bulk item echoing what
+ * the client sent, has the path in the property written instead. The property is left out under
+ * {@code ?links=false} and when there is neither.
+ */
+public class ResourceLinkWriter extends BeanPropertyWriter {
+    private final String prefix;
+    private final Function<Object, Long> idOf;
+
+    public ResourceLinkWriter(BeanPropertyWriter urlProperty, String prefix, Function<Object, Long> idOf) {
+        super(urlProperty);
+        this.prefix = prefix;
+        this.idOf = idOf;
+    }
+
+    @Override
+    public void serializeAsField(Object bean, JsonGenerator generator, SerializerProvider provider) throws Exception {
+        ResourceLinks links = ResourceLinks.of(provider);
+        if (!links.isEnabled()) {
+            return;
+        }
+
+        Long id = idOf.apply(bean);
+        if (id != null) {
+            generator.writeFieldName(_name);
+            links.write(prefix, id, generator);
+            return;
+        }
+
+        String path = (String) get(bean);
+        if (path != null && !path.isEmpty()) {
+            generator.writeFieldName(_name);
+            links.write(path, generator);
+        }
+    }
+}
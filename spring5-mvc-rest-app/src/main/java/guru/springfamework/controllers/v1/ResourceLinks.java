@@ -0,0 +1,158 @@
+package guru.springfamework.controllers.v1;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Turns the ids the DTOs carry, or the relative paths some still hold, into absolute links such as
+ * https://host/api/v1/vendors/1 while they are serialized. The base URL is worked out once per response from the
+ * scheme, host and port the client used (behind a proxy, the forwarded ones) and each link is written from it
+ * without building a String. {@code ?links=false} leaves the links out; outside a request they stay relative.
+ */
+public final class ResourceLinks {
+    public static final String LINKS_PARAM = "links";
+
+    private static final ResourceLinks RELATIVE = new ResourceLinks(true, new char[0]);
+    private static final ResourceLinks NONE = new ResourceLinks(false, new char[0]);
+    private static final String ATTRIBUTE = ResourceLinks.class.getName();
+
+    // behind a single host name every request has the same base, so the last one is nearly always a hit
+    private static volatile Base lastBase;
+
+    private final boolean enabled;
+    private final char[] base;
+    // the base followed by the path of the link being written; only the path part changes from link to link
+    private char[] buffer;
+
+    private ResourceLinks(boolean enabled, char[] base) {
+        this.enabled = enabled;
+        this.base = base;
+    }
+
+    /**
+     * The links for the request on this thread. Responses serialized off the request thread, such as streamed
+     * exports, take them along with {@link #applyTo}.
+     */
+    public static ResourceLinks forCurrentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return RELATIVE;
+        }
+
+        HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+        if ("false".equalsIgnoreCase(request.getParameter(LINKS_PARAM))) {
+            return NONE;
+        }
+        return new ResourceLinks(true, base(request));
+    }
+
+    static ResourceLinks of(SerializerProvider provider) {
+        ResourceLinks links = (ResourceLinks) provider.getAttribute(ATTRIBUTE);
+        if (links == null) {
+            links = forCurrentRequest();
+            provider.setAttribute(ATTRIBUTE, links);
+        }
+        return links;
+    }
+
+    public ObjectWriter applyTo(ObjectWriter writer) {
+        return writer.withAttribute(ATTRIBUTE, this);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    void write(String path, JsonGenerator generator) throws IOException {
+        if (!enabled) {
+            generator.writeNull();
+            return;
+        }
+        if (base.length == 0 || !path.startsWith("/")) {
+            generator.writeString(path);
+            return;
+        }
+
+        ensureCapacity(base.length + path.length());
+        path.getChars(0, path.length(), buffer, base.length);
+        generator.writeString(buffer, 0, base.length + path.length());
+    }
+
+    /**
+     * Writes the link to the resource with the given id under the collection at {@code prefix}, e.g.
+     * /api/v1/vendors/, without building the path as a String first.
+     */
+    void write(String prefix, long id, JsonGenerator generator) throws IOException {
+        if (!enabled) {
+            generator.writeNull();
+            return;
+        }
+
+        // a long has at most 20 characters, sign included
+        ensureCapacity(base.length + prefix.length() + 20);
+        prefix.getChars(0, prefix.length(), buffer, base.length);
+        int length = base.length + prefix.length();
+        if (id < 0) {
+            buffer[length++] = '-';
+        }
+        int end = length + digits(id);
+        for (int i = end - 1; i >= length; i--) {
+            buffer[i] = (char) ('0' + Math.abs(id % 10));
+            id /= 10;
+        }
+        generator.writeString(buffer, 0, end);
+    }
+
+    private void ensureCapacity(int length) {
+        if (buffer == null || buffer.length < length) {
+            buffer = Arrays.copyOf(base, Math.max(length, 2 * base.length));
+        }
+    }
+
+    private static int digits(long id) {
+        int digits = 1;
+        for (long rest = id / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        return digits;
+    }
+
+    private static char[] base(HttpServletRequest request) {
+        Base last = lastBase;
+        if (last == null || !last.matches(request)) {
+            last = new Base(request);
+            lastBase = last;
+        }
+        return last.chars;
+    }
+
+    private static final class Base {
+        private final String scheme;
+        private final String host;
+        private final int port;
+        private final String contextPath;
+        private final char[] chars;
+
+        private Base(HttpServletRequest request) {
+            this.scheme = request.getScheme();
+            this.host = request.getServerName();
+            this.port = request.getServerPort();
+            this.contextPath = request.getContextPath();
+            this.chars = ServletUriComponentsBuilder.fromContextPath(request).toUriString().toCharArray();
+        }
+
+        private boolean matches(HttpServletRequest request) {
+            return port == request.getServerPort() && scheme.equals(request.getScheme())
+                    && host.equals(request.getServerName()) && contextPath.equals(request.getContextPath());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package guru.springfamework.controllers.v1;
+
+import guru.springfamework.api.v1.model.SearchResultDTO;
+import guru.springfamework.services.FullTextIndex;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Api(description = "Fuzzy name search over customers and vendors")
+@RestController
+@ConditionalOnProperty(name = "search.enabled", havingValue = "true", matchIfMissing = true)
+@RequestMapping(SearchController.API_V1_SEARCH)
+public class SearchController {
+    public static final String API_V1_SEARCH = "/api/v1/search";
+
+    static final int DEFAULT_LIMIT = 20;
+    static final int MAX_LIMIT = 100;
+
+    private final FullTextIndex fullTextIndex;
+
+    public SearchController(FullTextIndex fullTextIndex) {
+        this.fullTextIndex = fullTextIndex;
+    }
+
+    @ApiOperation(value = "This will search customer and vendor names",
+        notes = "Every word of q must match a name exactly, as a prefix or with a typo; type=customer or type=vendor narrows the search.")
+    @GetMapping
+    public ResponseEntity<SearchResultDTO> search(@RequestParam(required = false) String q,
+                                                  @RequestParam(required = false) String type,
+                                                  @RequestParam(required = false) Integer limit) {
+        if (!StringUtils.hasText(q) || (type != null
+                && !FullTextIndex.CUSTOMER.equals(type) && !FullTextIndex.VENDOR.equals(type))) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        int maxHits = (limit == null || limit < 1) ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        return ResponseEntity.ok(new SearchResultDTO(fullTextIndex.search(q, type, maxHits)));
+    }
+}
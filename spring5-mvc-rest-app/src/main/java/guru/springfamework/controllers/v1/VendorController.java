@@ -1,11 +1,18 @@
 package guru.springfamework.controllers.v1;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springfamework.api.v1.model.BulkDeleteResultDTO;
+import guru.springfamework.api.v1.model.VendorBatchResultDTO;
 import guru.springfamework.api.v1.model.VendorDTO;
 import guru.springfamework.api.v1.model.VendorListDTO;
 import guru.springfamework.services.VendorService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -13,20 +20,29 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 @RestController
+@ConditionalOnProperty(name = "async.enabled", havingValue = "false", matchIfMissing = true)
 @Api(description = "This is my Vendor API")
 @RequestMapping(VendorController.VENDOR_API_V1_URL)
 public class VendorController {
     public static final String VENDOR_API_V1_URL = "/api/v1/vendors";
 
     private final VendorService vendorService;
+    private final ObjectMapper objectMapper;
 
-    public VendorController(VendorService vendorService) {
+    public VendorController(VendorService vendorService, ObjectMapper objectMapper) {
         this.vendorService = vendorService;
+        this.objectMapper = objectMapper;
     }
 
     @ApiOperation(value = "View List of Vendors", notes = "These are some API Notes")
@@ -36,11 +52,33 @@ public class VendorController {
         return vendorService.getAllVendors();
     }
 
+    @ApiOperation(value = "View a page of Vendors",
+            notes = "Keyset pagination: pass the id of the last vendor seen as 'after', or follow next_url.")
+    @GetMapping(params = "limit")
+    @ResponseStatus(HttpStatus.OK)
+    public VendorListDTO getVendorPage(@RequestParam(required = false) Long after, @RequestParam Integer limit) {
+        return vendorService.getVendorPage(after, limit);
+    }
+
+    @ApiOperation(value = "Stream every Vendor",
+            notes = "Written as a JSON array, or as newline-delimited JSON when application/x-ndjson is accepted.")
+    @GetMapping(value = "/export",
+            produces = {MediaType.APPLICATION_JSON_VALUE, JsonStreamingResponses.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportVendors(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return JsonStreamingResponses.stream(objectMapper, accept, vendorService::exportVendors);
+    }
+
     @ApiOperation(value = "Get Vendor By Id")
     @GetMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public VendorDTO getVendorById(@PathVariable Long id) {
-        return vendorService.getVendorById(id);
+    public ResponseEntity<VendorDTO> getVendorById(@PathVariable Long id, WebRequest webRequest) {
+        String eTag = VersionETags.of(vendorService.getVendorVersion(id));
+
+        // answer a matching If-None-Match from the version alone, without loading or serializing the vendor
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(vendorService.getVendorById(id));
     }
 
     @ApiOperation(value = "Create a new vendor")
@@ -50,18 +88,36 @@ public class VendorController {
         return vendorService.createNewVendor(vendorDTO);
     }
 
+    @ApiOperation(value = "Create or update many vendors at once",
+            notes = "Vendors with a vendor_url are updated, the rest are created; the outcome of each is reported by position.")
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public VendorBatchResultDTO upsertVendors(@RequestBody VendorListDTO vendorListDTO) {
+        return vendorService.upsertVendors(vendorListDTO.getVendors().iterator());
+    }
+
+    @ApiOperation(value = "Delete many vendors at once",
+            notes = "Takes a JSON array of vendor ids; ids without a vendor are skipped and left out of the deleted count.")
+    @PostMapping("/batch-delete")
+    @ResponseStatus(HttpStatus.OK)
+    public BulkDeleteResultDTO deleteVendors(@RequestBody List<Long> ids) {
+        return vendorService.deleteVendorsById(ids);
+    }
+
     @ApiOperation(value = "Update a existing vendor")
     @PutMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
-    public VendorDTO updateVendor(@PathVariable Long id, @RequestBody VendorDTO vendorDTO) {
-        return vendorService.saveVendorByDto(id, vendorDTO);
+    public VendorDTO updateVendor(@PathVariable Long id, @RequestBody VendorDTO vendorDTO,
+                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return vendorService.saveVendorByDto(id, vendorDTO, VersionETags.fromIfMatch(ifMatch));
     }
 
     @ApiOperation(value = "Update a vendor property")
     @PatchMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
-    public VendorDTO patchVendor(@PathVariable Long id, @RequestBody VendorDTO vendorDTO) {
-        return vendorService.patchVendor(id, vendorDTO);
+    public VendorDTO patchVendor(@PathVariable Long id, @RequestBody VendorDTO vendorDTO,
+                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return vendorService.patchVendor(id, vendorDTO, VersionETags.fromIfMatch(ifMatch));
     }
 
     @ApiOperation(value = "Delete a vendor")
@@ -0,0 +1,55 @@
+package guru.springfamework.controllers.v1;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.util.StringUtils;
+
+/**
+ * Entity versions travel as strong ETags, e.g. {@code "3"}. Public for the reactive controllers, which answer
+ * the same preconditions.
+ */
+public final class VersionETags {
+
+    private VersionETags() {
+    }
+
+    public static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Whether an If-None-Match header names {@code eTag}, for handlers that cannot use
+     * {@link org.springframework.web.context.request.WebRequest#checkNotModified} off the request thread.
+     */
+    static boolean matchesIfNoneMatch(String ifNoneMatch, String eTag) {
+        if (!StringUtils.hasText(ifNoneMatch)) {
+            return false;
+        }
+
+        for (String candidate : StringUtils.commaDelimitedListToStringArray(ifNoneMatch)) {
+            String trimmed = candidate.trim();
+            if ("*".equals(trimmed) || eTag.equals(trimmed.startsWith("W/") ? trimmed.substring(2) : trimmed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the version an If-Match header asks for, or null when there is no precondition to check.
+     */
+    public static Long fromIfMatch(String ifMatch) {
+        if (!StringUtils.hasText(ifMatch) || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+
+        String eTag = ifMatch.trim();
+        if (eTag.startsWith("W/")) {
+            eTag = eTag.substring(2);
+        }
+        try {
+            return Long.valueOf(StringUtils.trimTrailingCharacter(StringUtils.trimLeadingCharacter(eTag, '"'), '"'));
+        } catch (NumberFormatException e) {
+            throw new OptimisticLockingFailureException("If-Match does not name a version of this resource: " + ifMatch);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package guru.springfamework.domain;
 import lombok.Data;
 
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
@@ -10,6 +11,7 @@ import javax.persistence.Id;
 
 @Data
 @Entity
+@EntityListeners(CategoryEntityListener.class)
 public class Category {
 
     @Id
@@ -0,0 +1,16 @@
+package guru.springfamework.domain;
+
+/**
+ * Published whenever a {@link Category} row is inserted, updated or removed.
+ */
+public class CategoryChangedEvent {
+    private final Long categoryId;
+
+    public CategoryChangedEvent(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+}
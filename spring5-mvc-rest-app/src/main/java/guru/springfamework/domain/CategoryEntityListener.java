@@ -0,0 +1,25 @@
+package guru.springfamework.domain;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Instantiated by Hibernate through Spring's bean container, so the publisher is injected like in any other bean.
+ */
+public class CategoryEntityListener {
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CategoryEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void categoryChanged(Category category) {
+        eventPublisher.publishEvent(new CategoryChangedEvent(category.getId()));
+    }
+}
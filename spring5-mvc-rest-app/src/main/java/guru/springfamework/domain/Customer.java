@@ -6,21 +6,39 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Version;
 import java.util.Objects;
 
 @Entity
+@EntityListeners(CustomerEntityListener.class)
+// searches order by id and page with id > :after, so each name index ends in id: for an exact name both the
+// seek and the order come from the index; a prefix search still reads its range from it but sorts the matches
+@Table(indexes = {
+        @Index(name = "idx_customer_last_name_id", columnList = "lastName, id"),
+        @Index(name = "idx_customer_first_name_id", columnList = "firstName, id")
+})
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 public class Customer {
+    // IDENTITY would make Hibernate insert each row on persist to learn its id, which rules out JDBC batching;
+    // the pooled sequence hands out ids in blocks of allocationSize instead
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_seq")
+    @SequenceGenerator(name = "customer_seq", sequenceName = "customer_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    private Long version;
+
     private String firstName;
     private String lastName;
 
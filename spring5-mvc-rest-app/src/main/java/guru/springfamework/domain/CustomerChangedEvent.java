@@ -0,0 +1,34 @@
+package guru.springfamework.domain;
+
+/**
+ * Published whenever a {@link Customer} row is inserted, updated or removed, with the names it was left with.
+ */
+public class CustomerChangedEvent {
+    private final Long customerId;
+    private final String firstName;
+    private final String lastName;
+    private final boolean removed;
+
+    public CustomerChangedEvent(Long customerId, String firstName, String lastName, boolean removed) {
+        this.customerId = customerId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.removed = removed;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public boolean isRemoved() {
+        return removed;
+    }
+}
@@ -0,0 +1,30 @@
+package guru.springfamework.domain;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Instantiated by Hibernate through Spring's bean container, like {@link CategoryEntityListener}.
+ */
+public class CustomerEntityListener {
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CustomerEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void customerSaved(Customer customer) {
+        eventPublisher.publishEvent(
+                new CustomerChangedEvent(customer.getId(), customer.getFirstName(), customer.getLastName(), false));
+    }
+
+    @PostRemove
+    public void customerRemoved(Customer customer) {
+        eventPublisher.publishEvent(new CustomerChangedEvent(customer.getId(), null, null, true));
+    }
+}
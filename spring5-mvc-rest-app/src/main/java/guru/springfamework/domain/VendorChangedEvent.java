@@ -0,0 +1,28 @@
+package guru.springfamework.domain;
+
+/**
+ * Published whenever a {@link Vendor} row is inserted, updated or removed, with the name it was left with.
+ */
+public class VendorChangedEvent {
+    private final Long vendorId;
+    private final String name;
+    private final boolean removed;
+
+    public VendorChangedEvent(Long vendorId, String name, boolean removed) {
+        this.vendorId = vendorId;
+        this.name = name;
+        this.removed = removed;
+    }
+
+    public Long getVendorId() {
+        return vendorId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isRemoved() {
+        return removed;
+    }
+}
@@ -0,0 +1,29 @@
+package guru.springfamework.domain;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Instantiated by Hibernate through Spring's bean container, like {@link CategoryEntityListener}.
+ */
+public class VendorEntityListener {
+    private final ApplicationEventPublisher eventPublisher;
+
+    public VendorEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void vendorSaved(Vendor vendor) {
+        eventPublisher.publishEvent(new VendorChangedEvent(vendor.getId(), vendor.getName(), false));
+    }
+
+    @PostRemove
+    public void vendorRemoved(Vendor vendor) {
+        eventPublisher.publishEvent(new VendorChangedEvent(vendor.getId(), null, true));
+    }
+}
@@ -1,11 +1,15 @@
 package guru.springfamework.repositories;
 
 import guru.springfamework.domain.Category;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+
 /**
  * Created by jt on 9/24/17.
  */
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     Category findByName(String name);
+    List<Category> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
@@ -1,7 +1,75 @@
 package guru.springfamework.repositories;
 
 import guru.springfamework.domain.Customer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface CustomerRepository extends JpaRepository<Customer, Long> {
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public interface CustomerRepository extends JpaRepository<Customer, Long>, CustomerSearch {
+    List<Customer> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("select c.id as id, c.firstName as firstName, c.lastName as lastName from Customer c order by c.id")
+    List<CustomerSummary> findAllSummaries();
+
+    /**
+     * Streams every customer in id order, fetching rows from the driver in chunks. Must be consumed inside a
+     * transaction and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select c from Customer c order by c.id")
+    Stream<Customer> streamAll();
+
+    /**
+     * Reads only the optimistic-locking version of a customer, or null when there is no such row.
+     */
+    @Query("select c.version from Customer c where c.id = :id")
+    Long findVersionById(@Param("id") Long id);
+
+    /**
+     * Overwrites both names, nulls included, and bumps the version in one statement; with a version, only while
+     * the customer still has it. Returns 1, or 0 when the customer is missing or at another version.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Customer c set c.firstName = :firstName, c.lastName = :lastName, c.version = c.version + 1 "
+            + "where c.id = :id and (:version is null or c.version = :version)")
+    int replace(@Param("id") Long id, @Param("firstName") String firstName, @Param("lastName") String lastName,
+                @Param("version") Long version);
+
+    /**
+     * Sets the names that are given, keeps the others and bumps the version in one statement; with a version,
+     * only while the customer still has it. Returns 1, or 0 when the customer is missing or at another version.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Customer c set c.firstName = coalesce(:firstName, c.firstName), "
+            + "c.lastName = coalesce(:lastName, c.lastName), c.version = c.version + 1 "
+            + "where c.id = :id and (:version is null or c.version = :version)")
+    int patch(@Param("id") Long id, @Param("firstName") String firstName, @Param("lastName") String lastName,
+              @Param("version") Long version);
+
+    /**
+     * The ones of the given ids that have a customer.
+     */
+    @Query("select c.id from Customer c where c.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Deletes the customers with the given ids in one statement and returns how many existed.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Customer c where c.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,26 @@
+package guru.springfamework.repositories;
+
+import guru.springfamework.domain.Customer;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Searches customers by name. The query is built per call so it only filters on the names given, each with a
+ * plain equality or a prefix {@code like} that the name indexes on Customer can serve.
+ */
+public interface CustomerSearch {
+    /**
+     * Returns up to {@code maxResults} matching customers with an id greater than {@code after}, in id order.
+     *
+     * @param lastName  the last name, or its prefix when {@code prefix} is set; null to not filter on it
+     * @param firstName the first name, likewise
+     */
+    List<Customer> search(String lastName, String firstName, boolean prefix, long after, int maxResults);
+
+    /**
+     * Streams every matching customer in id order, fetching rows in chunks. Must be consumed inside a
+     * transaction and closed afterwards.
+     */
+    Stream<Customer> streamSearch(String lastName, String firstName, boolean prefix);
+}
@@ -0,0 +1,80 @@
+package guru.springfamework.repositories;
+
+import guru.springfamework.domain.Customer;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public class CustomerSearchImpl implements CustomerSearch {
+    private static final char LIKE_ESCAPE = '\\';
+
+    private final EntityManager entityManager;
+
+    public CustomerSearchImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Customer> search(String lastName, String firstName, boolean prefix, long after, int maxResults) {
+        return query(lastName, firstName, prefix, after)
+                .setMaxResults(maxResults)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<Customer> streamSearch(String lastName, String firstName, boolean prefix) {
+        return query(lastName, firstName, prefix, 0L)
+                .setHint(HINT_FETCH_SIZE, 500)
+                .setHint(HINT_READONLY, true)
+                .getResultStream();
+    }
+
+    private TypedQuery<Customer> query(String lastName, String firstName, boolean prefix, long after) {
+        StringBuilder jpql = new StringBuilder("select c from Customer c where c.id > :after");
+        appendNameFilter(jpql, "lastName", lastName, prefix);
+        appendNameFilter(jpql, "firstName", firstName, prefix);
+        jpql.append(" order by c.id");
+
+        TypedQuery<Customer> query = entityManager.createQuery(jpql.toString(), Customer.class)
+                .setParameter("after", after);
+        if (lastName != null) {
+            query.setParameter("lastName", prefix ? likePrefix(lastName) : lastName);
+        }
+        if (firstName != null) {
+            query.setParameter("firstName", prefix ? likePrefix(firstName) : firstName);
+        }
+        return query;
+    }
+
+    private static void appendNameFilter(StringBuilder jpql, String property, String value, boolean prefix) {
+        if (value == null) {
+            return;
+        }
+
+        jpql.append(" and c.").append(property);
+        if (prefix) {
+            jpql.append(" like :").append(property).append(" escape '").append(LIKE_ESCAPE).append('\'');
+        } else {
+            jpql.append(" = :").append(property);
+        }
+    }
+
+    /**
+     * Escapes the like wildcards in {@code value}, so only the trailing % matches anything.
+     */
+    static String likePrefix(String value) {
+        StringBuilder pattern = new StringBuilder(value.length() + 1);
+        for (char c : value.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                pattern.append(LIKE_ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+}
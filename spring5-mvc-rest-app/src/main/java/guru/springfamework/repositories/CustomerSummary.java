@@ -0,0 +1,13 @@
+package guru.springfamework.repositories;
+
+/**
+ * The columns a customer list shows. Queries returning it select just these, as scalars, so no entity is
+ * hydrated, snapshotted for dirty checking or kept in the persistence context.
+ */
+public interface CustomerSummary {
+    Long getId();
+
+    String getFirstName();
+
+    String getLastName();
+}
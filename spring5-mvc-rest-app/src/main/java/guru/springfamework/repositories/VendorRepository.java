@@ -2,11 +2,75 @@ package guru.springfamework.repositories;
 
 import guru.springfamework.domain.Category;
 import guru.springfamework.domain.Vendor;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 /**
  * Created by jt on 9/24/17.
  */
 public interface VendorRepository extends JpaRepository<Vendor, Long> {
+    List<Vendor> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("select v.id as id, v.name as name from Vendor v order by v.id")
+    List<VendorSummary> findAllSummaries();
+
+    /**
+     * Streams every vendor in id order, fetching rows from the driver in chunks. Must be consumed inside a
+     * transaction and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select v from Vendor v order by v.id")
+    Stream<Vendor> streamAll();
+
+    /**
+     * Reads only the optimistic-locking version of a vendor, or null when there is no such row.
+     */
+    @Query("select v.version from Vendor v where v.id = :id")
+    Long findVersionById(@Param("id") Long id);
+
+    /**
+     * Overwrites the name, null included, and bumps the version in one statement; with a version, only while
+     * the vendor still has it. Returns 1, or 0 when the vendor is missing or at another version.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Vendor v set v.name = :name, v.version = v.version + 1 "
+            + "where v.id = :id and (:version is null or v.version = :version)")
+    int replace(@Param("id") Long id, @Param("name") String name, @Param("version") Long version);
+
+    /**
+     * Sets the name when it is given and bumps the version in one statement; with a version, only while the
+     * vendor still has it. Returns 1, or 0 when the vendor is missing or at another version.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Vendor v set v.name = coalesce(:name, v.name), v.version = v.version + 1 "
+            + "where v.id = :id and (:version is null or v.version = :version)")
+    int patch(@Param("id") Long id, @Param("name") String name, @Param("version") Long version);
+
+    /**
+     * The ones of the given ids that have a vendor.
+     */
+    @Query("select v.id from Vendor v where v.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 
+    /**
+     * Deletes the vendors with the given ids in one statement and returns how many existed.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Vendor v where v.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
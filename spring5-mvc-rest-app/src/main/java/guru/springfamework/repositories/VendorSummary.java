@@ -0,0 +1,10 @@
+package guru.springfamework.repositories;
+
+/**
+ * The columns a vendor list shows, selected as scalars like {@link CustomerSummary}.
+ */
+public interface VendorSummary {
+    Long getId();
+
+    String getName();
+}
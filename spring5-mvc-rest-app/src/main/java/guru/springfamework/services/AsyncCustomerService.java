@@ -0,0 +1,79 @@
+package guru.springfamework.services;
+
+import guru.springfamework.api.v1.model.BulkDeleteResultDTO;
+import guru.springfamework.config.CacheConfig;
+import guru.springframework.model.CustomerBulkResultDTO;
+import guru.springframework.model.CustomerDTO;
+import guru.springframework.model.CustomerListDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link CustomerService} for the async controllers: every call runs on the {@link JpaExecutor}, except
+ * lookups the customer caches can answer, which complete on the caller's thread.
+ */
+@Service
+@ConditionalOnProperty(name = "async.enabled", havingValue = "true")
+public class AsyncCustomerService {
+    private final CustomerService customerService;
+    private final JpaExecutor jpaExecutor;
+    private final CacheManager cacheManager;
+
+    public AsyncCustomerService(CustomerService customerService, JpaExecutor jpaExecutor, CacheManager cacheManager) {
+        this.customerService = customerService;
+        this.jpaExecutor = jpaExecutor;
+        this.cacheManager = cacheManager;
+    }
+
+    public CompletableFuture<List<CustomerDTO>> getAllCustomers() {
+        return jpaExecutor.supply(customerService::getAllCustomers);
+    }
+
+    public CompletableFuture<CustomerListDTO> getCustomerPage(Long after, Integer limit) {
+        return jpaExecutor.supply(() -> customerService.getCustomerPage(after, limit));
+    }
+
+    public CompletableFuture<CustomerListDTO> searchCustomers(String lastName, String firstName, boolean prefix,
+                                                              Long after, Integer limit) {
+        return jpaExecutor.supply(() -> customerService.searchCustomers(lastName, firstName, prefix, after, limit));
+    }
+
+    public CompletableFuture<CustomerDTO> getCustomerById(Long id) {
+        return jpaExecutor.cachedOrSupply(cacheManager.getCache(CacheConfig.CUSTOMER_CACHE), id, CustomerDTO.class,
+                () -> customerService.getCustomerById(id));
+    }
+
+    public CompletableFuture<Long> getCustomerVersion(Long id) {
+        return jpaExecutor.cachedOrSupply(cacheManager.getCache(CacheConfig.CUSTOMER_VERSION_CACHE), id, Long.class,
+                () -> customerService.getCustomerVersion(id));
+    }
+
+    public CompletableFuture<CustomerDTO> createNewCustomer(CustomerDTO customerDTO) {
+        return jpaExecutor.supply(() -> customerService.createNewCustomer(customerDTO));
+    }
+
+    public CompletableFuture<CustomerBulkResultDTO> upsertCustomers(Iterator<CustomerDTO> customerDTOS) {
+        return jpaExecutor.supply(() -> customerService.upsertCustomers(customerDTOS));
+    }
+
+    public CompletableFuture<CustomerDTO> saveCustomerByDTO(Long id, CustomerDTO customerDTO, Long expectedVersion) {
+        return jpaExecutor.supply(() -> customerService.saveCustomerByDTO(id, customerDTO, expectedVersion));
+    }
+
+    public CompletableFuture<CustomerDTO> patchCustomer(Long id, CustomerDTO customerDTO, Long expectedVersion) {
+        return jpaExecutor.supply(() -> customerService.patchCustomer(id, customerDTO, expectedVersion));
+    }
+
+    public CompletableFuture<Void> deleteCustomerById(Long id) {
+        return jpaExecutor.run(() -> customerService.deleteCustomerById(id));
+    }
+
+    public CompletableFuture<BulkDeleteResultDTO> deleteCustomersById(List<Long> ids) {
+        return jpaExecutor.supply(() -> customerService.deleteCustomersById(ids));
+    }
+}
@@ -0,0 +1,74 @@
+package guru.springfamework.services;
+
+import guru.springfamework.api.v1.model.BulkDeleteResultDTO;
+import guru.springfamework.api.v1.model.VendorBatchResultDTO;
+import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.api.v1.model.VendorListDTO;
+import guru.springfamework.config.CacheConfig;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link VendorService} for the async controllers: every call runs on the {@link JpaExecutor}, except
+ * lookups the vendor caches can answer, which complete on the caller's thread.
+ */
+@Service
+@ConditionalOnProperty(name = "async.enabled", havingValue = "true")
+public class AsyncVendorService {
+    private final VendorService vendorService;
+    private final JpaExecutor jpaExecutor;
+    private final CacheManager cacheManager;
+
+    public AsyncVendorService(VendorService vendorService, JpaExecutor jpaExecutor, CacheManager cacheManager) {
+        this.vendorService = vendorService;
+        this.jpaExecutor = jpaExecutor;
+        this.cacheManager = cacheManager;
+    }
+
+    public CompletableFuture<VendorDTO> getVendorById(Long id) {
+        return jpaExecutor.cachedOrSupply(cacheManager.getCache(CacheConfig.VENDOR_CACHE), id, VendorDTO.class,
+                () -> vendorService.getVendorById(id));
+    }
+
+    public CompletableFuture<Long> getVendorVersion(Long id) {
+        return jpaExecutor.cachedOrSupply(cacheManager.getCache(CacheConfig.VENDOR_VERSION_CACHE), id, Long.class,
+                () -> vendorService.getVendorVersion(id));
+    }
+
+    public CompletableFuture<VendorListDTO> getAllVendors() {
+        return jpaExecutor.supply(vendorService::getAllVendors);
+    }
+
+    public CompletableFuture<VendorListDTO> getVendorPage(Long after, Integer limit) {
+        return jpaExecutor.supply(() -> vendorService.getVendorPage(after, limit));
+    }
+
+    public CompletableFuture<VendorDTO> createNewVendor(VendorDTO vendorDTO) {
+        return jpaExecutor.supply(() -> vendorService.createNewVendor(vendorDTO));
+    }
+
+    public CompletableFuture<VendorBatchResultDTO> upsertVendors(Iterator<VendorDTO> vendorDTOS) {
+        return jpaExecutor.supply(() -> vendorService.upsertVendors(vendorDTOS));
+    }
+
+    public CompletableFuture<VendorDTO> saveVendorByDto(Long id, VendorDTO vendorDTO, Long expectedVersion) {
+        return jpaExecutor.supply(() -> vendorService.saveVendorByDto(id, vendorDTO, expectedVersion));
+    }
+
+    public CompletableFuture<VendorDTO> patchVendor(Long id, VendorDTO vendorDTO, Long expectedVersion) {
+        return jpaExecutor.supply(() -> vendorService.patchVendor(id, vendorDTO, expectedVersion));
+    }
+
+    public CompletableFuture<Void> deleteVendorById(Long id) {
+        return jpaExecutor.run(() -> vendorService.deleteVendorById(id));
+    }
+
+    public CompletableFuture<BulkDeleteResultDTO> deleteVendorsById(List<Long> ids) {
+        return jpaExecutor.supply(() -> vendorService.deleteVendorsById(ids));
+    }
+}
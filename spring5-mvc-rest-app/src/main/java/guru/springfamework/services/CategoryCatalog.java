@@ -0,0 +1,134 @@
+package guru.springfamework.services;
+
+import guru.springfamework.api.v1.mapper.CategoryMapper;
+import guru.springfamework.api.v1.model.CategoryDTO;
+import guru.springfamework.domain.Category;
+import guru.springfamework.domain.CategoryChangedEvent;
+import guru.springfamework.repositories.CategoryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps every category in memory, indexed by name. Categories almost never change, so lookups read an
+ * immutable snapshot that is swapped as a whole: a committed change only bumps the generation, and the next
+ * read after it rebuilds the snapshot from the repository once, however many rows the change touched.
+ * <p>
+ * Name lookups are exact hash lookups by default; with {@code categories.catalog.case-insensitive=true} they
+ * go through a case-insensitive tree map instead, which still avoids allocating a lowered key per request.
+ */
+@Component
+public class CategoryCatalog {
+    private final CategoryMapper categoryMapper;
+    private final CategoryRepository categoryRepository;
+    private final boolean caseInsensitive;
+
+    private final AtomicLong generation = new AtomicLong();
+    // a lock rather than synchronized: the reload queries the database, which would pin a virtual thread
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private volatile Snapshot snapshot = new Snapshot(-1, "", Collections.emptyMap(), Collections.emptyList());
+
+    public CategoryCatalog(CategoryMapper categoryMapper, CategoryRepository categoryRepository,
+                           @Value("${categories.catalog.case-insensitive:false}") boolean caseInsensitive) {
+        this.categoryMapper = categoryMapper;
+        this.categoryRepository = categoryRepository;
+        this.caseInsensitive = caseInsensitive;
+    }
+
+    public CategoryDTO findByName(String name) {
+        return name == null ? null : current().byName.get(name);
+    }
+
+    /**
+     * Returns the snapshot's shared, unmodifiable list; the same instance is handed out until the catalog changes.
+     */
+    public List<CategoryDTO> findAll() {
+        return current().all;
+    }
+
+    /**
+     * Digest of every category's id and name; stable across restarts while the categories stay the same.
+     */
+    public String getVersion() {
+        return current().version;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        current();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        generation.incrementAndGet();
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        return current.generation == generation.get() ? current : reload();
+    }
+
+    private Snapshot reload() {
+        reloadLock.lock();
+        try {
+            long target = generation.get();
+            Snapshot current = snapshot;
+
+            if (current.generation != target) {
+                // a change committed while loading leaves this snapshot behind the generation, so it is reloaded again
+                current = load(target);
+                snapshot = current;
+            }
+            return current;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private Snapshot load(long target) {
+        Map<String, CategoryDTO> byName = caseInsensitive ? new TreeMap<>(String.CASE_INSENSITIVE_ORDER) : new HashMap<>();
+        List<CategoryDTO> all = new ArrayList<>();
+        StringBuilder content = new StringBuilder();
+
+        for (Category category : categoryRepository.findAll()) {
+            CategoryDTO categoryDTO = categoryMapper.categoryToCategoryDTO(category);
+            all.add(categoryDTO);
+            content.append(categoryDTO.getId()).append(':').append(categoryDTO.getName()).append('\n');
+
+            if (categoryDTO.getName() != null) {
+                byName.putIfAbsent(categoryDTO.getName(), categoryDTO);
+            }
+        }
+
+        String version = DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8));
+
+        return new Snapshot(target, version, Collections.unmodifiableMap(byName), Collections.unmodifiableList(all));
+    }
+
+    private static final class Snapshot {
+        private final long generation;
+        private final String version;
+        private final Map<String, CategoryDTO> byName;
+        private final List<CategoryDTO> all;
+
+        private Snapshot(long generation, String version, Map<String, CategoryDTO> byName, List<CategoryDTO> all) {
+            this.generation = generation;
+            this.version = version;
+            this.byName = byName;
+            this.all = all;
+        }
+    }
+}
@@ -1,10 +1,20 @@
 package guru.springfamework.services;
 
 import guru.springfamework.api.v1.model.CategoryDTO;
+import guru.springfamework.api.v1.model.CategoryListDTO;
 
 import java.util.List;
 
 public interface CategoryService {
+    /**
+     * Returns the catalog's shared, unmodifiable list; the same instance is returned until a category changes.
+     */
     List<CategoryDTO> getAllCategories();
+    CategoryListDTO getCategoryPage(Long after, Integer limit);
     CategoryDTO getCategoryByName(String name);
+
+    /**
+     * Digest of the catalog content, which changes whenever any category does.
+     */
+    String getCatalogVersion();
 }
@@ -2,11 +2,12 @@ package guru.springfamework.services;
 
 import guru.springfamework.api.v1.mapper.CategoryMapper;
 import guru.springfamework.api.v1.model.CategoryDTO;
+import guru.springfamework.api.v1.model.CategoryListDTO;
+import guru.springfamework.controllers.v1.CategoryController;
 import guru.springfamework.domain.Category;
 import guru.springfamework.repositories.CategoryRepository;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -15,30 +16,50 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryMapper categoryMapper;
     private final CategoryRepository categoryRepository;
+    private final CategoryCatalog categoryCatalog;
 
     public CategoryServiceImpl(CategoryMapper categoryMapper,
-                               CategoryRepository categoryRepository) {
+                               CategoryRepository categoryRepository,
+                               CategoryCatalog categoryCatalog) {
         this.categoryMapper = categoryMapper;
         this.categoryRepository = categoryRepository;
+        this.categoryCatalog = categoryCatalog;
     }
 
     @Override
     public List<CategoryDTO> getAllCategories() {
-        return categoryRepository.findAll()
+        return categoryCatalog.findAll();
+    }
+
+    @Override
+    public CategoryListDTO getCategoryPage(Long after, Integer limit) {
+        KeysetPageRequest pageRequest = KeysetPageRequest.of(after, limit);
+        List<Category> categories = categoryRepository
+                .findByIdGreaterThanOrderByIdAsc(pageRequest.getAfter(), pageRequest.toPageable());
+
+        List<CategoryDTO> categoryDTOS = pageRequest.trim(categories)
                 .stream()
                 .map(categoryMapper::categoryToCategoryDTO)
                 .collect(Collectors.toList());
+
+        return new CategoryListDTO(categoryDTOS,
+                pageRequest.nextUrl(CategoryController.API_V1_CATEGORIES, categories, Category::getId));
     }
 
     @Override
     public CategoryDTO getCategoryByName(String name) {
-        Category category = categoryRepository.findByName(name);
+        CategoryDTO categoryDTO = categoryCatalog.findByName(name);
 
-        if(category == null) {
+        if(categoryDTO == null) {
             throw new ResourceNotFoundException();
         } else {
-            return categoryMapper.categoryToCategoryDTO(category);
+            return categoryDTO;
         }
 
     }
+
+    @Override
+    public String getCatalogVersion() {
+        return categoryCatalog.getVersion();
+    }
 }
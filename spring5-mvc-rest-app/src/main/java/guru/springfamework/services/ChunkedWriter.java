@@ -0,0 +1,118 @@
+package guru.springfamework.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Writes items in fixed-size chunks, one transaction per chunk, so Hibernate can send each chunk as JDBC
+ * batches. A chunk that fails is rolled back and replayed one item per transaction, which isolates the bad
+ * items without losing the rest of the chunk.
+ */
+@Component
+public class ChunkedWriter {
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public ChunkedWriter(PlatformTransactionManager transactionManager,
+                         @Value("${bulk.chunk-size:1000}") int chunkSize) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Receives the outcome of every item, by its position in the input, once its transaction has ended.
+     */
+    public interface Listener<T, R> {
+        void written(int index, R result);
+
+        /**
+         * @param item the item, or null when the iterator failed to produce it, e.g. for a malformed line
+         */
+        void failed(int index, T item, RuntimeException e);
+    }
+
+    /**
+     * Hands {@code writeChunk} the items a chunk at once, so it can e.g. load what the chunk touches in one
+     * query; it must return one result per item, in order.
+     */
+    public <T, R> void writeChunks(Iterator<T> items, Function<List<T>, List<R>> writeChunk, Listener<T, R> listener) {
+        List<T> chunk = new ArrayList<>(chunkSize);
+        int firstIndex = 0;
+
+        while (items.hasNext()) {
+            T item;
+            try {
+                item = items.next();
+            } catch (RuntimeException e) {
+                // an item that cannot be read fails alone; the items before it are written first so that every
+                // outcome keeps its position
+                firstIndex = flush(firstIndex, chunk, writeChunk, listener);
+                listener.failed(firstIndex++, null, e);
+                continue;
+            }
+
+            chunk.add(item);
+            if (chunk.size() == chunkSize) {
+                firstIndex = flush(firstIndex, chunk, writeChunk, listener);
+            }
+        }
+        flush(firstIndex, chunk, writeChunk, listener);
+    }
+
+    /**
+     * Writes and clears the pending chunk, returning the index of the item after it.
+     */
+    private <T, R> int flush(int firstIndex, List<T> chunk, Function<List<T>, List<R>> writeChunk,
+                             Listener<T, R> listener) {
+        if (chunk.isEmpty()) {
+            return firstIndex;
+        }
+
+        writeChunk(firstIndex, chunk, writeChunk, listener);
+        int nextIndex = firstIndex + chunk.size();
+        chunk.clear();
+        return nextIndex;
+    }
+
+    private <T, R> void writeChunk(int firstIndex, List<T> chunk, Function<List<T>, List<R>> writeChunk,
+                                   Listener<T, R> listener) {
+        List<R> results;
+        try {
+            results = transactionTemplate.execute(status -> writeChunk.apply(chunk));
+        } catch (RuntimeException e) {
+            if (chunk.size() == 1) {
+                listener.failed(firstIndex, chunk.get(0), e);
+            } else {
+                writeOneByOne(firstIndex, chunk, writeChunk, listener);
+            }
+            return;
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            listener.written(firstIndex + i, results.get(i));
+        }
+    }
+
+    private <T, R> void writeOneByOne(int firstIndex, List<T> chunk, Function<List<T>, List<R>> writeChunk,
+                                      Listener<T, R> listener) {
+        for (int i = 0; i < chunk.size(); i++) {
+            T item = chunk.get(i);
+            R result;
+            try {
+                result = transactionTemplate.execute(status -> writeChunk.apply(Collections.singletonList(item)).get(0));
+            } catch (RuntimeException e) {
+                listener.failed(firstIndex + i, item, e);
+                continue;
+            }
+            listener.written(firstIndex + i, result);
+        }
+    }
+}
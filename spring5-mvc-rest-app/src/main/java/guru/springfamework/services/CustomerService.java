@@ -1,14 +1,41 @@
 package guru.springfamework.services;
 
+import guru.springfamework.api.v1.model.BulkDeleteResultDTO;
+import guru.springframework.model.CustomerBulkResultDTO;
 import guru.springframework.model.CustomerDTO;
+import guru.springframework.model.CustomerListDTO;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface CustomerService {
     List<CustomerDTO> getAllCustomers();
+    CustomerListDTO getCustomerPage(Long after, Integer limit);
+    void exportCustomers(Consumer<CustomerDTO> consumer);
+    /**
+     * Returns a keyset page of the customers whose names match; a null name is not filtered on.
+     *
+     * @param prefix match names starting with the given ones rather than equal to them
+     */
+    CustomerListDTO searchCustomers(String lastName, String firstName, boolean prefix, Long after, Integer limit);
+    void exportCustomerSearch(String lastName, String firstName, boolean prefix, Consumer<CustomerDTO> consumer);
     CustomerDTO getCustomerById(Long id);
+    Long getCustomerVersion(Long id);
     CustomerDTO createNewCustomer(CustomerDTO customerDTO);
-    CustomerDTO saveCustomerByDTO(Long id, CustomerDTO customerDTO);
-    CustomerDTO patchCustomer(Long id, CustomerDTO customerDTO);
+    /**
+     * Updates the customers whose customerUrl names one and creates the rest, committing in chunks; one bad item
+     * fails alone.
+     */
+    CustomerBulkResultDTO upsertCustomers(Iterator<CustomerDTO> customerDTOS);
+    /**
+     * @param expectedVersion version the caller last saw, or null to overwrite whatever is stored
+     */
+    CustomerDTO saveCustomerByDTO(Long id, CustomerDTO customerDTO, Long expectedVersion);
+    CustomerDTO patchCustomer(Long id, CustomerDTO customerDTO, Long expectedVersion);
     void deleteCustomerById(Long id);
+    /**
+     * Deletes every listed customer that exists; the result counts the distinct ids asked for and those deleted.
+     */
+    BulkDeleteResultDTO deleteCustomersById(List<Long> ids);
 }
@@ -1,89 +1,314 @@
 package guru.springfamework.services;
 
 import guru.springfamework.api.v1.mapper.CustomerMapper;
+import guru.springfamework.api.v1.model.BulkDeleteResultDTO;
+import guru.springfamework.api.v1.model.LinkedCustomerBulkItemResultDTO;
+import guru.springfamework.config.CacheConfig;
 import guru.springfamework.controllers.v1.CustomerController;
 import guru.springfamework.domain.Customer;
+import guru.springfamework.domain.CustomerChangedEvent;
 import guru.springfamework.repositories.CustomerRepository;
+import guru.springframework.model.BulkItemStatus;
+import guru.springframework.model.CustomerBulkItemResultDTO;
+import guru.springframework.model.CustomerBulkResultDTO;
 import guru.springframework.model.CustomerDTO;
+import guru.springframework.model.CustomerListDTO;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import javax.persistence.EntityManager;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class CustomerServiceImpl implements CustomerService {
     private final CustomerMapper customerMapper;
     private final CustomerRepository customerRepository;
+    private final EntityManager entityManager;
+    private final ChunkedWriter chunkedWriter;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public CustomerServiceImpl(CustomerMapper customerMapper, CustomerRepository customerRepository) {
+    public CustomerServiceImpl(CustomerMapper customerMapper, CustomerRepository customerRepository,
+                               EntityManager entityManager, ChunkedWriter chunkedWriter,
+                               ApplicationEventPublisher eventPublisher) {
         this.customerMapper = customerMapper;
         this.customerRepository = customerRepository;
+        this.entityManager = entityManager;
+        this.chunkedWriter = chunkedWriter;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CustomerDTO> getAllCustomers() {
         return customerRepository
-                .findAll()
+                .findAllSummaries()
                 .stream()
-                .map(customer -> {
-                    CustomerDTO customerDTO = customerMapper.customerToCustomerDTO(customer);
-                    customerDTO.setCustomerUrl(CustomerController.API_V1_CUSTOMERS + customer.getId());
-                    return customerDTO;
-                })
+                .map(customerMapper::customerSummaryToCustomerDTO)
                 .collect(Collectors.toList());
     }
 
     @Override
+    public CustomerListDTO getCustomerPage(Long after, Integer limit) {
+        KeysetPageRequest pageRequest = KeysetPageRequest.of(after, limit);
+        List<Customer> customers = customerRepository
+                .findByIdGreaterThanOrderByIdAsc(pageRequest.getAfter(), pageRequest.toPageable());
+
+        CustomerListDTO customerListDTO = new CustomerListDTO();
+        pageRequest.trim(customers).forEach(customer -> customerListDTO.getCustomers().add(customerMapper.customerToCustomerDTO(customer)));
+        customerListDTO.setNextUrl(pageRequest.nextUrl(CustomerController.API_V1_CUSTOMERS, customers, Customer::getId));
+
+        return customerListDTO;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportCustomers(Consumer<CustomerDTO> consumer) {
+        try (Stream<Customer> customers = customerRepository.streamAll()) {
+            customers.forEach(customer -> {
+                consumer.accept(customerMapper.customerToCustomerDTO(customer));
+                // keep the persistence context from growing with the table
+                entityManager.detach(customer);
+            });
+        }
+    }
+
+    @Override
+    public CustomerListDTO searchCustomers(String lastName, String firstName, boolean prefix, Long after, Integer limit) {
+        KeysetPageRequest pageRequest = KeysetPageRequest.of(after, limit);
+        List<Customer> customers = customerRepository
+                .search(lastName, firstName, prefix, pageRequest.getAfter(), pageRequest.getFetchSize());
+
+        CustomerListDTO customerListDTO = new CustomerListDTO();
+        pageRequest.trim(customers).forEach(customer -> customerListDTO.getCustomers().add(customerMapper.customerToCustomerDTO(customer)));
+        customerListDTO.setNextUrl(pageRequest.nextUrl(searchUrl(lastName, firstName, prefix), customers, Customer::getId));
+
+        return customerListDTO;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportCustomerSearch(String lastName, String firstName, boolean prefix, Consumer<CustomerDTO> consumer) {
+        try (Stream<Customer> customers = customerRepository.streamSearch(lastName, firstName, prefix)) {
+            customers.forEach(customer -> {
+                consumer.accept(customerMapper.customerToCustomerDTO(customer));
+                entityManager.detach(customer);
+            });
+        }
+    }
+
+    private static String searchUrl(String lastName, String firstName, boolean prefix) {
+        UriComponentsBuilder url = UriComponentsBuilder.fromPath(CustomerController.API_V1_CUSTOMERS + "search");
+        if (lastName != null) {
+            url.queryParam("lastname", lastName);
+        }
+        if (firstName != null) {
+            url.queryParam("firstname", firstName);
+        }
+        return url.queryParam("prefix", prefix).build().encode().toUriString();
+    }
+
+    /**
+     * Tells apart the two reasons an update matched no row; only runs when one did not.
+     */
+    private RuntimeException missingOrConflict(Long id) {
+        return customerRepository.existsById(id)
+                ? new ObjectOptimisticLockingFailureException(Customer.class, id)
+                : new ResourceNotFoundException();
+    }
+
+    private Long currentVersion(Long id) {
+        Long version = customerRepository.findVersionById(id);
+
+        if (version == null) {
+            throw new ResourceNotFoundException();
+        }
+        return version;
+    }
+
+    @Override
+    @Cacheable(CacheConfig.CUSTOMER_CACHE)
     public CustomerDTO getCustomerById(Long id) {
         return customerRepository.findById(id)
                 .map(customerMapper::customerToCustomerDTO)
                 .orElseThrow(ResourceNotFoundException::new);
     }
 
+    @Override
+    @Cacheable(CacheConfig.CUSTOMER_VERSION_CACHE)
+    public Long getCustomerVersion(Long id) {
+        return currentVersion(id);
+    }
+
     @Override
     public CustomerDTO createNewCustomer(CustomerDTO customerDTO) {
         return saveAndReturnDTO(customerMapper.customerDtoToCustomer(customerDTO));
     }
 
-    private CustomerDTO saveAndReturnDTO(Customer customer) {
-        Customer savedCustomer = customerRepository.save(customer);
+    @Override
+    @CacheEvict(cacheNames = {CacheConfig.CUSTOMER_CACHE, CacheConfig.CUSTOMER_VERSION_CACHE}, allEntries = true)
+    public CustomerBulkResultDTO upsertCustomers(Iterator<CustomerDTO> customerDTOS) {
+        CustomerBulkResultDTO bulkResult = new CustomerBulkResultDTO();
 
-        CustomerDTO returnedDto = customerMapper.customerToCustomerDTO(savedCustomer);
+        chunkedWriter.writeChunks(customerDTOS, this::upsertChunk,
+                new ChunkedWriter.Listener<CustomerDTO, CustomerBulkItemResultDTO>() {
+                    @Override
+                    public void written(int index, CustomerBulkItemResultDTO itemResult) {
+                        itemResult.setIndex(index);
+                        bulkResult.getResults().add(itemResult);
+                        if (itemResult.getStatus() == BulkItemStatus.CREATED) {
+                            bulkResult.setCreated(bulkResult.getCreated() + 1);
+                        } else {
+                            bulkResult.setUpdated(bulkResult.getUpdated() + 1);
+                        }
+                    }
 
-        returnedDto.setCustomerUrl(CustomerController.API_V1_CUSTOMERS + savedCustomer.getId());
+                    @Override
+                    public void failed(int index, CustomerDTO customerDTO, RuntimeException e) {
+                        CustomerBulkItemResultDTO itemResult = new CustomerBulkItemResultDTO();
+                        itemResult.setStatus(BulkItemStatus.FAILED);
+                        itemResult.setIndex(index);
+                        itemResult.setCustomerUrl(customerDTO == null ? null : customerDTO.getCustomerUrl());
+                        itemResult.setError(NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                        bulkResult.getResults().add(itemResult);
+                        bulkResult.setFailed(bulkResult.getFailed() + 1);
+                    }
+                });
 
-        return returnedDto;
+        return bulkResult;
     }
 
-    @Override
-    public CustomerDTO saveCustomerByDTO(Long id, CustomerDTO customerDTO) {
-        Customer customer = customerMapper.customerDtoToCustomer(customerDTO);
-        customer.setId(id);
+    private List<CustomerBulkItemResultDTO> upsertChunk(List<CustomerDTO> customerDTOS) {
+        List<Long> ids = new ArrayList<>(customerDTOS.size());
+        customerDTOS.forEach(customerDTO -> ids.add(getCustomerId(customerDTO.getCustomerUrl())));
 
-        return saveAndReturnDTO(customer);
+        // one select for every customer the chunk updates, instead of a findById per item
+        Map<Long, Customer> existing = customerRepository.findAllById(ids.stream().filter(Objects::nonNull)
+                .collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+
+        List<CustomerBulkItemResultDTO> itemResults = new ArrayList<>(customerDTOS.size());
+        for (int i = 0; i < customerDTOS.size(); i++) {
+            CustomerDTO customerDTO = customerDTOS.get(i);
+            Long id = ids.get(i);
+            Customer customer;
+            if (id == null) {
+                customer = customerMapper.customerDtoToCustomer(customerDTO);
+                // the sequence assigns the id here, so the insert itself can wait for the chunk's JDBC batch
+                entityManager.persist(customer);
+            } else if (existing.containsKey(id)) {
+                // dirty, so updated in the chunk's JDBC batch on flush
+                customer = existing.get(id);
+                customer.setFirstName(customerDTO.getFirstname());
+                customer.setLastName(customerDTO.getLastname());
+            } else {
+                throw new ResourceNotFoundException("No customer at " + customerDTO.getCustomerUrl());
+            }
+            itemResults.add(new LinkedCustomerBulkItemResultDTO(
+                    id == null ? BulkItemStatus.CREATED : BulkItemStatus.UPDATED, customer.getId()));
+        }
+        return itemResults;
+    }
+
+    /**
+     * The id a customerUrl points at, or null when there is no url, i.e. the customer is new. The url may be the
+     * absolute link a GET returns or just its path.
+     */
+    private static Long getCustomerId(String customerUrl) {
+        if (customerUrl == null) {
+            return null;
+        }
+
+        String path = URI.create(customerUrl).getPath();
+        if (path == null || !path.startsWith(CustomerController.API_V1_CUSTOMERS)) {
+            throw new IllegalArgumentException("Not a customer URL: " + customerUrl);
+        }
+        try {
+            return Long.valueOf(path.substring(CustomerController.API_V1_CUSTOMERS.length()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a customer URL: " + customerUrl, e);
+        }
+    }
+
+    private CustomerDTO saveAndReturnDTO(Customer customer) {
+        Customer savedCustomer = customerRepository.save(customer);
+
+        return customerMapper.customerToCustomerDTO(savedCustomer);
     }
 
     @Override
-    public CustomerDTO patchCustomer(Long id, CustomerDTO customerDTO) {
-        return customerRepository.findById(id).map(
-                customer -> {
-                    if(customerDTO.getFirstname() != null) {
-                        customer.setFirstName(customerDTO.getFirstname());
-                    }
+    @Caching(put = @CachePut(cacheNames = CacheConfig.CUSTOMER_CACHE, key = "#id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.CUSTOMER_VERSION_CACHE, key = "#id"))
+    @Transactional
+    public CustomerDTO saveCustomerByDTO(Long id, CustomerDTO customerDTO, Long expectedVersion) {
+        // one UPDATE whose row count tells a missing or outdated customer apart, rather than a merge's SELECT first
+        if (customerRepository.replace(id, customerDTO.getFirstname(), customerDTO.getLastname(),
+                expectedVersion) == 0) {
+            throw missingOrConflict(id);
+        }
+        Customer saved = new Customer(id, null, customerDTO.getFirstname(), customerDTO.getLastname());
+        eventPublisher.publishEvent(new CustomerChangedEvent(id, saved.getFirstName(), saved.getLastName(), false));
 
-                    if(customerDTO.getLastname() != null) {
-                        customer.setLastName(customerDTO.getLastname());
-                    }
+        return customerMapper.customerToCustomerDTO(saved);
+    }
 
-                    CustomerDTO returnedDto = customerMapper.customerToCustomerDTO(customerRepository.save(customer));
-                    returnedDto.setCustomerUrl(CustomerController.API_V1_CUSTOMERS + id);
+    @Override
+    @Caching(put = @CachePut(cacheNames = CacheConfig.CUSTOMER_CACHE, key = "#id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.CUSTOMER_VERSION_CACHE, key = "#id"))
+    @Transactional
+    public CustomerDTO patchCustomer(Long id, CustomerDTO customerDTO, Long expectedVersion) {
+        // one UPDATE whose row count tells a missing or outdated customer apart, rather than a load and save
+        if (customerRepository.patch(id, customerDTO.getFirstname(), customerDTO.getLastname(), expectedVersion) == 0) {
+            throw missingOrConflict(id);
+        }
+        Customer patched = customerDTO.getFirstname() != null && customerDTO.getLastname() != null
+                ? new Customer(id, null, customerDTO.getFirstname(), customerDTO.getLastname())
+                // only a partial patch needs the names it left alone read back
+                : customerRepository.findById(id).orElseThrow(ResourceNotFoundException::new);
+        // the update bypassed the entity listeners, so the change is announced here
+        eventPublisher.publishEvent(
+                new CustomerChangedEvent(id, patched.getFirstName(), patched.getLastName(), false));
 
-                    return returnedDto;
-                }).orElseThrow(RuntimeException::new);
+        return customerMapper.customerToCustomerDTO(patched);
     }
 
     @Override
+    @CacheEvict({CacheConfig.CUSTOMER_CACHE, CacheConfig.CUSTOMER_VERSION_CACHE})
+    @Transactional
     public void deleteCustomerById(Long id) {
-        customerRepository.deleteById(id);
+        if (customerRepository.deleteByIds(Collections.singletonList(id)) == 0) {
+            throw new ResourceNotFoundException();
+        }
+        eventPublisher.publishEvent(new CustomerChangedEvent(id, null, null, true));
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.CUSTOMER_CACHE, CacheConfig.CUSTOMER_VERSION_CACHE}, allEntries = true)
+    public BulkDeleteResultDTO deleteCustomersById(List<Long> ids) {
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        List<Long> deleted = IdChunks.deleteInChunks(distinctIds, customerRepository::findExistingIds,
+                customerRepository::deleteByIds);
+        deleted.forEach(id -> eventPublisher.publishEvent(new CustomerChangedEvent(id, null, null, true)));
+
+        return new BulkDeleteResultDTO(distinctIds.size(), deleted.size());
     }
 }
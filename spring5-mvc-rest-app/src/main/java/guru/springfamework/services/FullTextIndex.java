@@ -0,0 +1,369 @@
+package guru.springfamework.services;
+
+import guru.springfamework.api.v1.model.SearchHitDTO;
+import guru.springfamework.controllers.v1.CustomerController;
+import guru.springfamework.controllers.v1.VendorController;
+import guru.springfamework.domain.Customer;
+import guru.springfamework.domain.CustomerChangedEvent;
+import guru.springfamework.domain.Vendor;
+import guru.springfamework.domain.VendorChangedEvent;
+import guru.springfamework.repositories.CustomerRepository;
+import guru.springfamework.repositories.VendorRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Typo-tolerant name search over customers and vendors, backed by an embedded Lucene index. The index lives
+ * in memory, or in {@code search.index.directory} (memory-mapped) when one is set; either way it is rebuilt
+ * from the repositories at startup and then follows the Customer and Vendor change events once their
+ * transactions commit, so a rolled-back write never shows up in a search.
+ * <p>
+ * Searches see changes within a second: a background thread reopens the searcher near-real-time, which keeps
+ * the writes from paying for a reopen each.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "search.enabled", havingValue = "true", matchIfMissing = true)
+public class FullTextIndex implements DisposableBean {
+    public static final String CUSTOMER = "customer";
+    public static final String VENDOR = "vendor";
+
+    private static final String KEY = "key";
+    private static final String TYPE = "type";
+    private static final String NAME = "name";
+    private static final String URL = "url";
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    // bounds the work a long query string can ask for
+    private static final int MAX_QUERY_TERMS = 8;
+
+    private final CustomerRepository customerRepository;
+    private final VendorRepository vendorRepository;
+    private final boolean rebuildOnStartup;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+
+    // held while a live change or a rebuild page is written, so a rebuild never overwrites a newer live change
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Set<String> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private boolean rebuilding;
+
+    public FullTextIndex(CustomerRepository customerRepository, VendorRepository vendorRepository,
+                         @Value("${search.index.directory:}") String directory,
+                         @Value("${search.index.rebuild-on-startup:true}") boolean rebuildOnStartup) {
+        this.customerRepository = customerRepository;
+        this.vendorRepository = vendorRepository;
+        this.rebuildOnStartup = rebuildOnStartup;
+
+        try {
+            // FSDirectory.open memory-maps the index on 64-bit JVMs
+            this.directory = StringUtils.hasText(directory) ? FSDirectory.open(Paths.get(directory))
+                    : new ByteBuffersDirectory();
+            this.writer = new IndexWriter(this.directory, new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+                    .setRAMBufferSizeMB(64));
+            this.searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the search index", e);
+        }
+
+        this.reopenThread = new ControlledRealTimeReopenThread<>(writer, searcherManager, 1.0, 0.05);
+        reopenThread.setName("search-index-reopen");
+        reopenThread.setDaemon(true);
+        reopenThread.start();
+    }
+
+    /**
+     * Returns up to {@code limit} customers and vendors whose names match every word of {@code text}, exactly,
+     * as a prefix or with a typo or two, best first.
+     *
+     * @param type {@link #CUSTOMER} or {@link #VENDOR} to search only those, or null for both
+     */
+    public List<SearchHitDTO> search(String text, String type, int limit) {
+        Query query = query(text, type);
+        if (query == null) {
+            return Collections.emptyList();
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                StoredFields storedFields = searcher.storedFields();
+                List<SearchHitDTO> hits = new ArrayList<>();
+
+                for (ScoreDoc scoreDoc : searcher.search(query, limit).scoreDocs) {
+                    Document document = storedFields.document(scoreDoc.doc);
+                    hits.add(new SearchHitDTO(document.get(TYPE), document.get(NAME), document.get(URL), scoreDoc.score));
+                }
+                return hits;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        String key = key(CUSTOMER, event.getCustomerId());
+        apply(key, event.isRemoved() ? null
+                : customerDocument(event.getCustomerId(), event.getFirstName(), event.getLastName()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVendorChanged(VendorChangedEvent event) {
+        String key = key(VENDOR, event.getVendorId());
+        apply(key, event.isRemoved() ? null : vendorDocument(event.getVendorId(), event.getName()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Replaces the whole index with what the repositories hold, a keyset page at a time. Changes committed
+     * meanwhile are still applied, and win over the rows the rebuild read before them.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        writeLock.lock();
+        try {
+            writer.deleteAll();
+            changedDuringRebuild.clear();
+            rebuilding = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writeLock.unlock();
+        }
+
+        long documents;
+        try {
+            documents = reindex(customerRepository::findByIdGreaterThanOrderByIdAsc, Customer::getId,
+                    customer -> customerDocument(customer.getId(), customer.getFirstName(), customer.getLastName()))
+                    + reindex(vendorRepository::findByIdGreaterThanOrderByIdAsc, Vendor::getId,
+                    vendor -> vendorDocument(vendor.getId(), vendor.getName()));
+            writer.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writeLock.lock();
+            try {
+                rebuilding = false;
+                changedDuringRebuild.clear();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        refresh();
+        log.info("Search index rebuilt with {} documents in {} ms", documents,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Makes every change applied so far visible to searches, without waiting for the reopen thread.
+     */
+    void refresh() {
+        try {
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        reopenThread.close();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+        analyzer.close();
+    }
+
+    private <T> long reindex(BiFunction<Long, Pageable, List<T>> page, Function<T, Long> idOf,
+                             Function<T, Document> toDocument) throws IOException {
+        long after = 0L;
+        long count = 0L;
+        List<T> rows;
+
+        do {
+            rows = page.apply(after, PageRequest.of(0, REBUILD_PAGE_SIZE));
+
+            writeLock.lock();
+            try {
+                for (T row : rows) {
+                    Document document = toDocument.apply(row);
+                    String key = document.get(KEY);
+                    if (!changedDuringRebuild.contains(key)) {
+                        writer.updateDocument(new Term(KEY, key), document);
+                    }
+                }
+            } finally {
+                writeLock.unlock();
+            }
+
+            if (!rows.isEmpty()) {
+                after = idOf.apply(rows.get(rows.size() - 1));
+            }
+            count += rows.size();
+        } while (rows.size() == REBUILD_PAGE_SIZE);
+
+        return count;
+    }
+
+    /**
+     * Writes or, with a null document, deletes one entry. Runs after the commit, so a failure is only logged:
+     * the entry stays stale until the row changes again or the index is rebuilt.
+     */
+    private void apply(String key, Document document) {
+        writeLock.lock();
+        try {
+            if (rebuilding) {
+                changedDuringRebuild.add(key);
+            }
+            if (document == null) {
+                writer.deleteDocuments(new Term(KEY, key));
+            } else {
+                writer.updateDocument(new Term(KEY, key), document);
+            }
+        } catch (IOException e) {
+            log.warn("Could not update search index entry {}", key, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Query query(String text, String type) {
+        List<String> terms = terms(text);
+        if (terms.isEmpty()) {
+            return null;
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : terms) {
+            query.add(termQuery(term), BooleanClause.Occur.MUST);
+        }
+        if (type != null) {
+            query.add(new TermQuery(new Term(TYPE, type)), BooleanClause.Occur.FILTER);
+        }
+        return query.build();
+    }
+
+    /**
+     * Matches one word exactly, as a prefix, or within the edits its length allows. The first letter must
+     * match for a typo to count, which keeps fuzzy matching fast over millions of distinct names.
+     */
+    private static Query termQuery(String term) {
+        Term nameTerm = new Term(NAME, term);
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(new BoostQuery(new TermQuery(nameTerm), 3.0f), BooleanClause.Occur.SHOULD)
+                .add(new BoostQuery(new PrefixQuery(nameTerm), 2.0f), BooleanClause.Occur.SHOULD);
+
+        int maxEdits = term.length() < 3 ? 0 : term.length() < 6 ? 1 : 2;
+        if (maxEdits > 0) {
+            query.add(new FuzzyQuery(nameTerm, maxEdits, 1), BooleanClause.Occur.SHOULD);
+        }
+        return query.build();
+    }
+
+    private List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+
+        try (TokenStream tokens = analyzer.tokenStream(NAME, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken() && terms.size() < MAX_QUERY_TERMS) {
+                terms.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private static Document customerDocument(Long id, String firstName, String lastName) {
+        String name = Stream.of(firstName, lastName).filter(Objects::nonNull).collect(Collectors.joining(" "));
+        return document(CUSTOMER, id, name, CustomerController.API_V1_CUSTOMERS + id);
+    }
+
+    private static Document vendorDocument(Long id, String name) {
+        return document(VENDOR, id, name == null ? "" : name, VendorController.VENDOR_API_V1_URL + "/" + id);
+    }
+
+    private static Document document(String type, Long id, String name, String url) {
+        Document document = new Document();
+        document.add(new StringField(KEY, key(type, id), Field.Store.YES));
+        document.add(new StringField(TYPE, type, Field.Store.YES));
+        document.add(new TextField(NAME, name, Field.Store.YES));
+        document.add(new StoredField(URL, url));
+        return document;
+    }
+
+    private static String key(String type, Long id) {
+        return type + ":" + id;
+    }
+}
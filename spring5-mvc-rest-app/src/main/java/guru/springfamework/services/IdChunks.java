@@ -0,0 +1,34 @@
+package guru.springfamework.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Splits a bulk delete into statements of at most {@value #DELETE_CHUNK_SIZE} ids, within every driver's limit
+ * on bind parameters.
+ */
+final class IdChunks {
+    static final int DELETE_CHUNK_SIZE = 1000;
+
+    private IdChunks() {
+    }
+
+    /**
+     * Selects the ids of each chunk that exist and deletes those, and returns them: only they get a removed
+     * event. A chunk with none of its ids left skips the delete.
+     */
+    static List<Long> deleteInChunks(List<Long> ids, Function<List<Long>, List<Long>> findExisting,
+                                     Consumer<List<Long>> delete) {
+        List<Long> deleted = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += DELETE_CHUNK_SIZE) {
+            List<Long> existing = findExisting.apply(ids.subList(from, Math.min(from + DELETE_CHUNK_SIZE, ids.size())));
+            if (!existing.isEmpty()) {
+                delete.accept(existing);
+                deleted.addAll(existing);
+            }
+        }
+        return deleted;
+    }
+}
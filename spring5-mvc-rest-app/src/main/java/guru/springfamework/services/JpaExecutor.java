@@ -0,0 +1,85 @@
+package guru.springfamework.services;
+
+import guru.springfamework.tracing.StatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking JPA calls for the async controllers on a fixed pool with a bounded queue, so a slow
+ * database holds these threads instead of Tomcat's. Once the queue is full a call is rejected at once with
+ * {@link RejectedExecutionException}, which is answered with 503.
+ * <p>
+ * The pool is not an Executor bean on purpose: that would replace the MVC task executor the exports stream
+ * on. Its queue, active threads and task timings are published as the "jpa" executor metrics. In the
+ * virtual-thread mode its threads are virtual too; the pool then only bounds how many calls run at once.
+ * The statements a call runs count towards the budget of the request that queued it, see StatementCounter.
+ */
+@Component
+@ConditionalOnProperty(name = "async.enabled", havingValue = "true")
+public class JpaExecutor implements DisposableBean {
+    public static final String NAME = "jpa";
+
+    private final ExecutorService executor;
+    private final StatementCounter statementCounter;
+
+    /**
+     * @param poolSize more threads than database connections would only queue on the connection pool
+     */
+    public JpaExecutor(MeterRegistry meterRegistry, ObjectProvider<StatementCounter> statementCounter,
+                       @Value("${async.jpa.pool-size:10}") int poolSize,
+                       @Value("${async.jpa.queue-capacity:100}") int queueCapacity,
+                       @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name(NAME + "-", 0).factory()
+                : new CustomizableThreadFactory(NAME + "-");
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, NAME);
+        this.statementCounter = statementCounter.getIfAvailable();
+    }
+
+    /**
+     * @throws RejectedExecutionException when the queue is full
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, this::execute);
+    }
+
+    public CompletableFuture<Void> run(Runnable call) {
+        return CompletableFuture.runAsync(call, this::execute);
+    }
+
+    /**
+     * Answers from {@code cache} on the calling thread when it holds {@code key}, and only queues
+     * {@code call} on a miss.
+     */
+    public <T> CompletableFuture<T> cachedOrSupply(Cache cache, Object key, Class<T> type, Supplier<T> call) {
+        T cached = cache == null ? null : cache.get(key, type);
+        return cached != null ? CompletableFuture.completedFuture(cached) : supply(call);
+    }
+
+    private void execute(Runnable task) {
+        executor.execute(statementCounter == null ? task : statementCounter.propagate(task));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
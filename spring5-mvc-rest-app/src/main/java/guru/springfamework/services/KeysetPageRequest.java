@@ -0,0 +1,62 @@
+package guru.springfamework.services;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset ("seek") pagination over ascending ids: a page is the first {@code limit} rows whose id is
+ * greater than the {@code after} cursor, so fetching a page costs the same however deep it is.
+ */
+public final class KeysetPageRequest {
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    private final long after;
+    private final int limit;
+
+    private KeysetPageRequest(long after, int limit) {
+        this.after = after;
+        this.limit = limit;
+    }
+
+    public static KeysetPageRequest of(Long after, Integer limit) {
+        int pageSize = (limit == null || limit < 1) ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+
+        return new KeysetPageRequest(after == null ? 0L : after, pageSize);
+    }
+
+    public long getAfter() {
+        return after;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * One row more than the page size is fetched so the last page can be detected without a count query.
+     */
+    public int getFetchSize() {
+        return limit + 1;
+    }
+
+    public Pageable toPageable() {
+        return PageRequest.of(0, getFetchSize());
+    }
+
+    public <T> List<T> trim(List<T> rows) {
+        return rows.size() > limit ? rows.subList(0, limit) : rows;
+    }
+
+    public <T> String nextUrl(String baseUrl, List<T> rows, Function<T, Long> idOf) {
+        if (rows.size() <= limit) {
+            return null;
+        }
+
+        return baseUrl + (baseUrl.contains("?") ? "&" : "?")
+                + "after=" + idOf.apply(rows.get(limit - 1)) + "&limit=" + limit;
+    }
+}
@@ -1,13 +1,34 @@
 package guru.springfamework.services;
 
+import guru.springfamework.api.v1.model.BulkDeleteResultDTO;
+import guru.springfamework.api.v1.model.VendorBatchResultDTO;
 import guru.springfamework.api.v1.model.VendorDTO;
 import guru.springfamework.api.v1.model.VendorListDTO;
 
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
 public interface VendorService {
     VendorDTO getVendorById(Long id);
+    Long getVendorVersion(Long id);
     VendorListDTO getAllVendors();
+    VendorListDTO getVendorPage(Long after, Integer limit);
+    void exportVendors(Consumer<VendorDTO> consumer);
     VendorDTO createNewVendor(VendorDTO vendorDTO);
-    VendorDTO saveVendorByDto(Long id, VendorDTO vendorDTO);
-    VendorDTO patchVendor(Long id, VendorDTO vendorDTO);
+    /**
+     * Updates the vendors whose vendor_url names one and creates the rest, committing in chunks; one bad item
+     * fails alone.
+     */
+    VendorBatchResultDTO upsertVendors(Iterator<VendorDTO> vendorDTOS);
+    /**
+     * @param expectedVersion version the caller last saw, or null to overwrite whatever is stored
+     */
+    VendorDTO saveVendorByDto(Long id, VendorDTO vendorDTO, Long expectedVersion);
+    VendorDTO patchVendor(Long id, VendorDTO vendorDTO, Long expectedVersion);
     void deleteVendorById(Long id);
+    /**
+     * Deletes every listed vendor that exists; the result counts the distinct ids asked for and those deleted.
+     */
+    BulkDeleteResultDTO deleteVendorsById(List<Long> ids);
 }
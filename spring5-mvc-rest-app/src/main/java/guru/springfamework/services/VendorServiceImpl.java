@@ -1,96 +1,277 @@
 package guru.springfamework.services;
 
 import guru.springfamework.api.v1.mapper.VendorMapper;
+import guru.springfamework.api.v1.model.BulkDeleteResultDTO;
+import guru.springfamework.api.v1.model.VendorBatchItemResultDTO;
+import guru.springfamework.api.v1.model.VendorBatchResultDTO;
 import guru.springfamework.api.v1.model.VendorDTO;
 import guru.springfamework.api.v1.model.VendorListDTO;
+import guru.springfamework.config.CacheConfig;
 import guru.springfamework.controllers.v1.VendorController;
 import guru.springfamework.domain.Vendor;
+import guru.springfamework.domain.VendorChangedEvent;
 import guru.springfamework.repositories.VendorRepository;
+import guru.springfamework.repositories.VendorSummary;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class VendorServiceImpl implements VendorService {
     private final VendorMapper vendorMapper;
     private final VendorRepository vendorRepository;
+    private final EntityManager entityManager;
+    private final ChunkedWriter chunkedWriter;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public VendorServiceImpl(VendorMapper vendorMapper, VendorRepository vendorRepository) {
+    public VendorServiceImpl(VendorMapper vendorMapper, VendorRepository vendorRepository,
+                             EntityManager entityManager, ChunkedWriter chunkedWriter,
+                             ApplicationEventPublisher eventPublisher) {
         this.vendorMapper = vendorMapper;
         this.vendorRepository = vendorRepository;
+        this.entityManager = entityManager;
+        this.chunkedWriter = chunkedWriter;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Cacheable(CacheConfig.VENDOR_CACHE)
     public VendorDTO getVendorById(Long id) {
         return vendorRepository.findById(id)
                 .map(vendorMapper::vendorToVendorDTO)
-                .map(vendorDTO -> {
-                    vendorDTO.setVendorUrl(getVendorUrl(id));
-                    return vendorDTO;
-                })
                 .orElseThrow(ResourceNotFoundException::new);
     }
 
+    @Override
+    @Cacheable(CacheConfig.VENDOR_VERSION_CACHE)
+    public Long getVendorVersion(Long id) {
+        return currentVersion(id);
+    }
 
     @Override
+    @Transactional(readOnly = true)
     public VendorListDTO getAllVendors() {
         List<VendorDTO> vendorDTOS = vendorRepository
-                .findAll()
+                .findAllSummaries()
                 .stream()
-                .map(vendor -> {
-                    VendorDTO vendorDTO = vendorMapper.vendorToVendorDTO(vendor);
-                    vendorDTO.setVendorUrl(getVendorUrl(vendor.getId()));
-                    return vendorDTO;
-                }).collect(Collectors.toList());
+                .map(vendorMapper::vendorSummaryToVendorDTO)
+                .collect(Collectors.toList());
 
         return new VendorListDTO(vendorDTOS);
     }
 
+    @Override
+    public VendorListDTO getVendorPage(Long after, Integer limit) {
+        KeysetPageRequest pageRequest = KeysetPageRequest.of(after, limit);
+        List<Vendor> vendors = vendorRepository
+                .findByIdGreaterThanOrderByIdAsc(pageRequest.getAfter(), pageRequest.toPageable());
+
+        List<VendorDTO> vendorDTOS = pageRequest.trim(vendors)
+                .stream()
+                .map(vendorMapper::vendorToVendorDTO)
+                .collect(Collectors.toList());
+
+        return new VendorListDTO(vendorDTOS,
+                pageRequest.nextUrl(VendorController.VENDOR_API_V1_URL, vendors, Vendor::getId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportVendors(Consumer<VendorDTO> consumer) {
+        try (Stream<Vendor> vendors = vendorRepository.streamAll()) {
+            vendors.forEach(vendor -> {
+                consumer.accept(vendorMapper.vendorToVendorDTO(vendor));
+                // keep the persistence context from growing with the table
+                entityManager.detach(vendor);
+            });
+        }
+    }
+
     @Override
     public VendorDTO createNewVendor(VendorDTO vendorDTO) {
         return saveAndReturnDTO(vendorMapper.vendorDtoToVendor(vendorDTO));
     }
 
     @Override
-    public VendorDTO saveVendorByDto(Long id, VendorDTO vendorDTO) {
-        Vendor vendorToSave = vendorMapper.vendorDtoToVendor(vendorDTO);
-        vendorToSave.setId(id);
+    @CacheEvict(cacheNames = {CacheConfig.VENDOR_CACHE, CacheConfig.VENDOR_VERSION_CACHE}, allEntries = true)
+    public VendorBatchResultDTO upsertVendors(Iterator<VendorDTO> vendorDTOS) {
+        VendorBatchResultDTO batchResult = new VendorBatchResultDTO();
+
+        chunkedWriter.writeChunks(vendorDTOS, this::upsertChunk,
+                new ChunkedWriter.Listener<VendorDTO, VendorBatchItemResultDTO>() {
+                    @Override
+                    public void written(int index, VendorBatchItemResultDTO itemResult) {
+                        itemResult.setIndex(index);
+                        batchResult.add(itemResult);
+                    }
 
-        return saveAndReturnDTO(vendorToSave);
+                    @Override
+                    public void failed(int index, VendorDTO vendorDTO, RuntimeException e) {
+                        VendorBatchItemResultDTO itemResult =
+                                new VendorBatchItemResultDTO(VendorBatchItemResultDTO.Status.FAILED, null);
+                        itemResult.setIndex(index);
+                        itemResult.setVendorUrl(vendorDTO == null ? null : vendorDTO.getVendorUrl());
+                        itemResult.setError(NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                        batchResult.add(itemResult);
+                    }
+                });
+
+        return batchResult;
+    }
+
+    private List<VendorBatchItemResultDTO> upsertChunk(List<VendorDTO> vendorDTOS) {
+        List<Long> ids = new ArrayList<>(vendorDTOS.size());
+        vendorDTOS.forEach(vendorDTO -> ids.add(getVendorId(vendorDTO.getVendorUrl())));
+
+        // one select for every vendor the chunk updates, instead of a findById per item
+        Map<Long, Vendor> existing = vendorRepository.findAllById(ids.stream().filter(Objects::nonNull)
+                .collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Vendor::getId, Function.identity()));
+
+        List<Vendor> vendors = new ArrayList<>(vendorDTOS.size());
+        for (int i = 0; i < vendorDTOS.size(); i++) {
+            Long id = ids.get(i);
+            if (id == null) {
+                vendors.add(vendorMapper.vendorDtoToVendor(vendorDTOS.get(i)));
+            } else if (existing.containsKey(id)) {
+                Vendor vendor = existing.get(id);
+                vendor.setName(vendorDTOS.get(i).getName());
+                vendors.add(vendor);
+            } else {
+                throw new ResourceNotFoundException("No vendor at " + vendorDTOS.get(i).getVendorUrl());
+            }
+        }
+        // new vendors are persisted and updated ones are dirty; both reach the database as JDBC batches on flush
+        vendorRepository.saveAll(vendors);
+
+        List<VendorBatchItemResultDTO> itemResults = new ArrayList<>(vendors.size());
+        for (int i = 0; i < vendors.size(); i++) {
+            itemResults.add(new VendorBatchItemResultDTO(ids.get(i) == null
+                    ? VendorBatchItemResultDTO.Status.CREATED : VendorBatchItemResultDTO.Status.UPDATED,
+                    vendors.get(i).getId()));
+        }
+        return itemResults;
     }
 
     @Override
-    public VendorDTO patchVendor(Long id, VendorDTO vendorDTO) {
-        return vendorRepository.findById(id)
-                .map(vendor -> {
-                    // TODO: if more properties, add more if statements
+    @Caching(put = @CachePut(cacheNames = CacheConfig.VENDOR_CACHE, key = "#id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.VENDOR_VERSION_CACHE, key = "#id"))
+    @Transactional
+    public VendorDTO saveVendorByDto(Long id, VendorDTO vendorDTO, Long expectedVersion) {
+        // one UPDATE whose row count tells a missing or outdated vendor apart, rather than a merge's SELECT first
+        if (vendorRepository.replace(id, vendorDTO.getName(), expectedVersion) == 0) {
+            throw missingOrConflict(id);
+        }
+        Vendor saved = new Vendor(id, null, vendorDTO.getName());
+        eventPublisher.publishEvent(new VendorChangedEvent(id, saved.getName(), false));
 
-                    if(vendorDTO.getName() != null) {
-                        vendor.setName(vendorDTO.getName());
-                    }
+        return vendorMapper.vendorToVendorDTO(saved);
+    }
+
+    @Override
+    @Caching(put = @CachePut(cacheNames = CacheConfig.VENDOR_CACHE, key = "#id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.VENDOR_VERSION_CACHE, key = "#id"))
+    @Transactional
+    public VendorDTO patchVendor(Long id, VendorDTO vendorDTO, Long expectedVersion) {
+        // one UPDATE whose row count tells a missing or outdated vendor apart, rather than a load and save
+        if (vendorRepository.patch(id, vendorDTO.getName(), expectedVersion) == 0) {
+            throw missingOrConflict(id);
+        }
+        Vendor patched = vendorDTO.getName() != null
+                ? new Vendor(id, null, vendorDTO.getName())
+                // an empty patch leaves the name to be read back
+                : vendorRepository.findById(id).orElseThrow(ResourceNotFoundException::new);
+        // the update bypassed the entity listeners, so the change is announced here
+        eventPublisher.publishEvent(new VendorChangedEvent(id, patched.getName(), false));
 
-                    return saveAndReturnDTO(vendor);
-                }).orElseThrow(ResourceNotFoundException::new);
+        return vendorMapper.vendorToVendorDTO(patched);
     }
 
     @Override
+    @CacheEvict({CacheConfig.VENDOR_CACHE, CacheConfig.VENDOR_VERSION_CACHE})
+    @Transactional
     public void deleteVendorById(Long id) {
-        vendorRepository.deleteById(id);
+        if (vendorRepository.deleteByIds(Collections.singletonList(id)) == 0) {
+            throw new ResourceNotFoundException();
+        }
+        eventPublisher.publishEvent(new VendorChangedEvent(id, null, true));
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.VENDOR_CACHE, CacheConfig.VENDOR_VERSION_CACHE}, allEntries = true)
+    public BulkDeleteResultDTO deleteVendorsById(List<Long> ids) {
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        List<Long> deleted = IdChunks.deleteInChunks(distinctIds, vendorRepository::findExistingIds,
+                vendorRepository::deleteByIds);
+        deleted.forEach(id -> eventPublisher.publishEvent(new VendorChangedEvent(id, null, true)));
+
+        return new BulkDeleteResultDTO(distinctIds.size(), deleted.size());
     }
 
     private VendorDTO saveAndReturnDTO(Vendor vendor) {
         Vendor savedVendor = vendorRepository.save(vendor);
 
-        VendorDTO returnedDto = vendorMapper.vendorToVendorDTO(savedVendor);
+        return vendorMapper.vendorToVendorDTO(savedVendor);
+    }
+
+
+    /**
+     * Tells apart the two reasons an update matched no row; only runs when one did not.
+     */
+    private RuntimeException missingOrConflict(Long id) {
+        return vendorRepository.existsById(id)
+                ? new ObjectOptimisticLockingFailureException(Vendor.class, id)
+                : new ResourceNotFoundException();
+    }
 
-        returnedDto.setVendorUrl(getVendorUrl(savedVendor.getId()));
+    private Long currentVersion(Long id) {
+        Long version = vendorRepository.findVersionById(id);
 
-        return returnedDto;
+        if (version == null) {
+            throw new ResourceNotFoundException();
+        }
+        return version;
     }
 
+    /**
+     * The id a vendor_url points at, or null when there is no url, i.e. the vendor is new. The url may be the
+     * absolute link a GET returns or just its path.
+     */
+    private Long getVendorId(String vendorUrl) {
+        if (vendorUrl == null) {
+            return null;
+        }
 
-    private String getVendorUrl(Long id) {
-        return VendorController.VENDOR_API_V1_URL + "/" + id;
+        String prefix = VendorController.VENDOR_API_V1_URL + "/";
+        String path = URI.create(vendorUrl).getPath();
+        if (path == null || !path.startsWith(prefix)) {
+            throw new IllegalArgumentException("Not a vendor URL: " + vendorUrl);
+        }
+        try {
+            return Long.valueOf(path.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a vendor URL: " + vendorUrl, e);
+        }
     }
 }
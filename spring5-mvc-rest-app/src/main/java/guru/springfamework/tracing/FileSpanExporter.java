@@ -0,0 +1,59 @@
+package guru.springfamework.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Appends spans to a file as newline-delimited JSON, one span per line. Writers take a lock rather than
+ * synchronizing, so a virtual thread blocked on the file does not pin its carrier.
+ */
+@Slf4j
+public class FileSpanExporter implements SpanExporter, DisposableBean {
+    private final ObjectWriter writer;
+    private final BufferedWriter out;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public FileSpanExporter(ObjectMapper objectMapper, Path file) throws IOException {
+        this.writer = objectMapper.writer();
+        this.out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public void export(List<Span> spans) {
+        lock.lock();
+        try {
+            for (Span span : spans) {
+                out.write(writer.writeValueAsString(span));
+                out.newLine();
+            }
+            out.flush();
+        } catch (IOException e) {
+            // losing a trace must never fail the request it describes
+            log.warn("Could not write trace {}", spans.get(0).getTraceId(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        lock.lock();
+        try {
+            out.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package guru.springfamework.tracing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the most recent traces in memory, for the traces actuator endpoint and for tests.
+ */
+public class InMemorySpanExporter implements SpanExporter {
+    private final int maxTraces;
+    private final Deque<List<Span>> traces = new ArrayDeque<>();
+
+    public InMemorySpanExporter(int maxTraces) {
+        this.maxTraces = maxTraces;
+    }
+
+    @Override
+    public synchronized void export(List<Span> spans) {
+        traces.addFirst(spans);
+        while (traces.size() > maxTraces) {
+            traces.removeLast();
+        }
+    }
+
+    /**
+     * Newest first.
+     */
+    public synchronized List<List<Span>> getTraces() {
+        return new ArrayList<>(traces);
+    }
+
+    public synchronized void clear() {
+        traces.clear();
+    }
+}
@@ -0,0 +1,30 @@
+package guru.springfamework.tracing;
+
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+
+import java.sql.ResultSet;
+
+/**
+ * Adds every row read with {@link ResultSet#next()} to the rows tag of the SQL span that produced it.
+ */
+public class ResultSetRowCounter implements MethodExecutionListener {
+    private final Tracer tracer;
+
+    public ResultSetRowCounter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            tracer.addToLastEnded(SqlTracingListener.LAYER, "rows", 1);
+        }
+    }
+}
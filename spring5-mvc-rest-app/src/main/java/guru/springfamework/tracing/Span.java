@@ -0,0 +1,85 @@
+package guru.springfamework.tracing;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One timed unit of work inside a trace. Spans are only touched by the thread that runs the request.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"traceId", "spanId", "parentId", "layer", "name", "start", "durationMicros", "tags"})
+public class Span {
+    private final String traceId;
+    private final String spanId;
+    private final String parentId;
+    private final String layer;
+    private final String name;
+    private final long start;
+    private final long startNanos;
+    private Long durationMicros;
+    private final Map<String, Object> tags = new LinkedHashMap<>();
+
+    Span(String traceId, String spanId, String parentId, String layer, String name) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentId = parentId;
+        this.layer = layer;
+        this.name = name;
+        this.start = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        this.startNanos = System.nanoTime();
+    }
+
+    public Span tag(String key, Object value) {
+        tags.put(key, value);
+        return this;
+    }
+
+    void end() {
+        durationMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public String getParentId() {
+        return parentId;
+    }
+
+    public String getLayer() {
+        return layer;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Epoch microseconds.
+     */
+    public long getStart() {
+        return start;
+    }
+
+    public Long getDurationMicros() {
+        return durationMicros;
+    }
+
+    @JsonIgnore
+    public boolean isEnded() {
+        return durationMicros != null;
+    }
+
+    public Map<String, Object> getTags() {
+        return tags;
+    }
+}
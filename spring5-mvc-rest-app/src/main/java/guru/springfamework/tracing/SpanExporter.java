@@ -0,0 +1,10 @@
+package guru.springfamework.tracing;
+
+import java.util.List;
+
+/**
+ * Receives the spans of a sampled trace once its root span has ended.
+ */
+public interface SpanExporter {
+    void export(List<Span> spans);
+}
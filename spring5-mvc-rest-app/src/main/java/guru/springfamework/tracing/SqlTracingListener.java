@@ -0,0 +1,61 @@
+package guru.springfamework.tracing;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Records a "sql" span for every statement run inside a sampled trace, with the SQL, the batch size, and
+ * the rows it updated or, for queries, the rows {@link ResultSetRowCounter} sees read from its ResultSet.
+ */
+public class SqlTracingListener implements QueryExecutionListener {
+    public static final String LAYER = "sql";
+
+    private final Tracer tracer;
+
+    public SqlTracingListener(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (tracer.currentSpan() == null || queryInfoList.isEmpty()) {
+            return;
+        }
+
+        // named by the SQL verb: select, insert, update, delete
+        String verb = queryInfoList.get(0).getQuery().trim().split("\\s", 2)[0].toLowerCase();
+        Span span = tracer.startSpan(LAYER, verb);
+        span.tag("statement", queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining(";\n")));
+        if (execInfo.isBatch()) {
+            span.tag("batchSize", execInfo.getBatchSize());
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Span span = tracer.currentSpan();
+        if (span == null || !LAYER.equals(span.getLayer())) {
+            return;
+        }
+
+        Object result = execInfo.getResult();
+        if (result instanceof Integer) {
+            span.tag("rows", ((Integer) result).longValue());
+        } else if (result instanceof int[]) {
+            span.tag("rows", Arrays.stream((int[]) result).asLongStream().sum());
+        } else if (result instanceof ResultSet) {
+            // counted by ResultSetRowCounter as the caller reads it
+            span.tag("rows", 0L);
+        }
+        if (!execInfo.isSuccess()) {
+            span.tag("error", execInfo.getThrowable().getClass().getSimpleName());
+        }
+        tracer.finish(span);
+    }
+}
@@ -0,0 +1,50 @@
+package guru.springfamework.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Limits on the statements a single request may run: a total count, a total query time, and how many times
+ * the same SQL may repeat before it is reported as a likely N+1. A limit of zero or less is not checked.
+ */
+public class StatementBudget {
+    private final int maxStatements;
+    private final long maxQueryMillis;
+    private final int maxRepeats;
+
+    public StatementBudget(int maxStatements, long maxQueryMillis, int maxRepeats) {
+        this.maxStatements = maxStatements;
+        this.maxQueryMillis = maxQueryMillis;
+        this.maxRepeats = maxRepeats;
+    }
+
+    /**
+     * Describes every limit {@code stats} goes over; empty when it is within budget.
+     */
+    public List<String> violations(StatementStats stats) {
+        List<String> violations = new ArrayList<>();
+
+        if (maxStatements > 0 && stats.getStatements() > maxStatements) {
+            violations.add(stats.getStatements() + " statements, budget " + maxStatements);
+        }
+        if (maxQueryMillis > 0 && stats.getElapsedMillis() > maxQueryMillis) {
+            violations.add(stats.getElapsedMillis() + "ms in queries, budget " + maxQueryMillis + "ms");
+        }
+        Map.Entry<String, Integer> mostRepeated = stats.mostRepeated();
+        if (maxRepeats > 0 && mostRepeated != null && mostRepeated.getValue() > maxRepeats) {
+            violations.add("possible N+1, ran " + mostRepeated.getValue() + " times: " + mostRepeated.getKey());
+        }
+        return violations;
+    }
+
+    /**
+     * Throws when {@code stats} goes over budget, for tests that pin how many statements a call may cost.
+     */
+    public void verify(StatementStats stats) {
+        List<String> violations = violations(stats);
+        if (!violations.isEmpty()) {
+            throw new StatementBudgetExceededException(String.join("; ", violations));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package guru.springfamework.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.servlet.DispatcherType;
+import java.util.List;
+
+/**
+ * Per-request statement budgets, configured through the sql.budget.* properties. Counting happens on the
+ * DataSource, so the customer, vendor and category repositories, and any added later, are all covered.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sql.budget.enabled", matchIfMissing = true)
+public class StatementBudgetConfig {
+
+    @Bean
+    public StatementCounter statementCounter() {
+        return new StatementCounter();
+    }
+
+    @Bean
+    public StatementBudget statementBudget(@Value("${sql.budget.max-statements:20}") int maxStatements,
+                                           @Value("${sql.budget.max-query-millis:500}") long maxQueryMillis,
+                                           @Value("${sql.budget.max-repeats:5}") int maxRepeats) {
+        return new StatementBudget(maxStatements, maxQueryMillis, maxRepeats);
+    }
+
+    @Bean
+    public FilterRegistrationBean<StatementBudgetFilter> statementBudgetFilter(StatementCounter statementCounter,
+            StatementBudget statementBudget,
+            @Value("${sql.budget.exclude:}") List<String> excludedPaths,
+            @Value("${sql.budget.fail:false}") boolean failOnViolation) {
+        FilterRegistrationBean<StatementBudgetFilter> registration = new FilterRegistrationBean<>(
+                new StatementBudgetFilter(statementCounter, statementBudget, excludedPaths, failOnViolation));
+        // inside the tracing filter, so a request failed for its budget still ends its trace
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        // the async dispatch is where a CompletableFuture endpoint is checked
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        return registration;
+    }
+}
@@ -0,0 +1,7 @@
+package guru.springfamework.tracing;
+
+public class StatementBudgetExceededException extends RuntimeException {
+    public StatementBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,84 @@
+package guru.springfamework.tracing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Counts the statements each request runs and logs the requests that go over the {@link StatementBudget}.
+ * With {@code failOnViolation} the request fails instead, which is how tests catch a new N+1.
+ * <p>
+ * A request that returns a CompletableFuture is checked on its async dispatch, once the work it queued on the
+ * {@code JpaExecutor} has run; the executor counts that work with the request. The body of a streamed export is
+ * written on the MVC task executor and is not counted.
+ */
+@Slf4j
+public class StatementBudgetFilter extends OncePerRequestFilter {
+    private static final String STATS_ATTRIBUTE = StatementBudgetFilter.class.getName() + ".STATS";
+
+    private final StatementCounter counter;
+    private final StatementBudget budget;
+    private final List<String> excludedPaths;
+    private final boolean failOnViolation;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    public StatementBudgetFilter(StatementCounter counter, StatementBudget budget, List<String> excludedPaths,
+                                 boolean failOnViolation) {
+        this.counter = counter;
+        this.budget = budget;
+        this.excludedPaths = excludedPaths;
+        this.failOnViolation = failOnViolation;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return excludedPaths.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        StatementStats stats = (StatementStats) request.getAttribute(STATS_ATTRIBUTE);
+        if (stats == null) {
+            counter.start();
+        } else {
+            counter.resume(stats);
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            stats = counter.stop();
+        }
+
+        if (isAsyncStarted(request)) {
+            request.setAttribute(STATS_ATTRIBUTE, stats);
+            return;
+        }
+
+        List<String> violations = budget.violations(stats);
+        if (violations.isEmpty()) {
+            return;
+        }
+
+        String message = request.getMethod() + " " + request.getRequestURI() + " over statement budget: "
+                + String.join("; ", violations);
+        if (failOnViolation) {
+            throw new StatementBudgetExceededException(message);
+        }
+        log.warn(message);
+    }
+}
@@ -0,0 +1,75 @@
+package guru.springfamework.tracing;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Counts the JDBC statements run on a thread between {@link #start()} and {@link #stop()}, for every
+ * repository alike since it sits on the DataSource. A JDBC batch counts once, as the single round trip it is.
+ * A task handed to another thread is counted with the thread that handed it over when it is wrapped by
+ * {@link #propagate(Runnable)}, and a request that goes async takes its stats along with {@link #resume}.
+ */
+public class StatementCounter implements QueryExecutionListener {
+    private final ThreadLocal<StatementStats> current = new ThreadLocal<>();
+
+    public void start() {
+        current.set(new StatementStats());
+    }
+
+    /**
+     * Returns what ran since {@link #start()}, or empty stats when counting was not started on this thread.
+     */
+    public StatementStats stop() {
+        StatementStats stats = current.get();
+        current.remove();
+        return stats == null ? new StatementStats() : stats;
+    }
+
+    /**
+     * Carries on counting into {@code stats}, returned by {@link #stop()} on another thread.
+     */
+    public void resume(StatementStats stats) {
+        current.set(stats);
+    }
+
+    /**
+     * Wraps {@code task} so the statements it runs on another thread count towards this thread's stats; the
+     * task is returned as is when counting was not started here.
+     */
+    public Runnable propagate(Runnable task) {
+        StatementStats stats = current.get();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            StatementStats previous = current.get();
+            current.set(stats);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    current.remove();
+                } else {
+                    current.set(previous);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        StatementStats stats = current.get();
+        if (stats != null) {
+            stats.record(queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining(";\n")),
+                    execInfo.getElapsedTime());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package guru.springfamework.tracing;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The statements one request ran: how many, how long they took in total, and how often each SQL string
+ * ran. The same parameterized SQL repeated many times is the signature of an N+1 select. The JPA executor
+ * may record into it from another thread, hence the locking.
+ */
+public class StatementStats {
+    private final Map<String, Integer> countsBySql = new LinkedHashMap<>();
+    private int statements;
+    private long elapsedMillis;
+
+    synchronized void record(String sql, long elapsedMillis) {
+        statements++;
+        this.elapsedMillis += elapsedMillis;
+        countsBySql.merge(sql, 1, Integer::sum);
+    }
+
+    public synchronized int getStatements() {
+        return statements;
+    }
+
+    public synchronized long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public synchronized Map<String, Integer> getCountsBySql() {
+        return Collections.unmodifiableMap(countsBySql);
+    }
+
+    /**
+     * The SQL that ran most often, or null when nothing ran.
+     */
+    public synchronized Map.Entry<String, Integer> mostRepeated() {
+        return countsBySql.entrySet().stream().max(Map.Entry.comparingByValue()).orElse(null);
+    }
+}
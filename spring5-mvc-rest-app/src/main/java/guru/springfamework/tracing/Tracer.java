@@ -0,0 +1,120 @@
+package guru.springfamework.tracing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps the sampled trace of the current request on its thread. Outside a sampled trace every call is a
+ * cheap no-op and {@link #startSpan} returns null, which is what keeps unsampled requests close to free.
+ */
+public class Tracer {
+    private final double sampleRate;
+    private final SpanExporter exporter;
+    private final ThreadLocal<Trace> currentTrace = new ThreadLocal<>();
+
+    public Tracer(double sampleRate, SpanExporter exporter) {
+        this.sampleRate = sampleRate;
+        this.exporter = exporter;
+    }
+
+    /**
+     * Whether a new trace, without a decision from the caller, should be recorded.
+     */
+    public boolean sample() {
+        return sampleRate >= 1.0 || (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    /**
+     * Starts the root span of a sampled trace on this thread.
+     *
+     * @param parentId the caller's span id, or null
+     */
+    public Span startTrace(String traceId, String parentId, String layer, String name) {
+        Trace trace = new Trace(traceId);
+        currentTrace.set(trace);
+
+        return trace.start(new Span(traceId, newSpanId(), parentId, layer, name));
+    }
+
+    /**
+     * Starts a child of the current span, or returns null when this thread is not in a sampled trace.
+     */
+    public Span startSpan(String layer, String name) {
+        Trace trace = currentTrace.get();
+        if (trace == null) {
+            return null;
+        }
+
+        return trace.start(new Span(trace.traceId, newSpanId(), trace.stack.peek().getSpanId(), layer, name));
+    }
+
+    public Span currentSpan() {
+        Trace trace = currentTrace.get();
+        return trace == null ? null : trace.stack.peek();
+    }
+
+    /**
+     * Ends a span from {@link #startTrace} or {@link #startSpan}; ending the root exports the trace.
+     */
+    public void finish(Span span) {
+        Trace trace = currentTrace.get();
+        if (span == null || trace == null) {
+            return;
+        }
+
+        span.end();
+        trace.stack.remove(span);
+        if (trace.stack.isEmpty()) {
+            currentTrace.remove();
+            exporter.export(trace.spans);
+        }
+    }
+
+    /**
+     * Adds to the numeric tag of the span that last ended with {@code layer} on this thread, for results,
+     * such as rows read from a ResultSet, that are only known after the work that produced them.
+     */
+    public void addToLastEnded(String layer, String key, long delta) {
+        Trace trace = currentTrace.get();
+        if (trace == null) {
+            return;
+        }
+
+        for (int i = trace.spans.size() - 1; i >= 0; i--) {
+            Span span = trace.spans.get(i);
+            if (span.isEnded() && layer.equals(span.getLayer())) {
+                Object value = span.getTags().get(key);
+                span.tag(key, (value instanceof Long ? (Long) value : 0L) + delta);
+                return;
+            }
+        }
+    }
+
+    public static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return String.format("%016x%016x", random.nextLong(), random.nextLong());
+    }
+
+    public static String newSpanId() {
+        return String.format("%016x", ThreadLocalRandom.current().nextLong());
+    }
+
+    private static final class Trace {
+        private final String traceId;
+        private final List<Span> spans = new ArrayList<>();
+        private final Deque<Span> stack = new ArrayDeque<>();
+
+        private Trace(String traceId) {
+            this.traceId = traceId;
+        }
+
+        private Span start(Span span) {
+            spans.add(span);
+            stack.push(span);
+            return span;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package guru.springfamework.tracing;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * /actuator/traces lists the traces kept by the in-memory exporter, newest first.
+ */
+@Endpoint(id = "traces")
+public class TracesEndpoint {
+    private final SpanExporter spanExporter;
+
+    public TracesEndpoint(SpanExporter spanExporter) {
+        this.spanExporter = spanExporter;
+    }
+
+    @ReadOperation
+    public List<List<Span>> traces() {
+        if (spanExporter instanceof InMemorySpanExporter) {
+            return ((InMemorySpanExporter) spanExporter).getTraces();
+        }
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,59 @@
+package guru.springfamework.tracing;
+
+import guru.springfamework.config.LayerPointcuts;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Opens a span around every controller, service, repository and mapper call made inside a sampled trace.
+ */
+@Aspect
+// outermost, so a cache hit shows up as a service span without a repository span under it
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TracingAspect {
+    private final Tracer tracer;
+
+    public TracingAspect(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Around("guru.springfamework.config.LayerPointcuts.controller()")
+    public Object traceController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace("controller", joinPoint);
+    }
+
+    @Around("guru.springfamework.config.LayerPointcuts.service()")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace("service", joinPoint);
+    }
+
+    @Around("guru.springfamework.config.LayerPointcuts.repository()")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace("repository", joinPoint);
+    }
+
+    @Around("guru.springfamework.config.LayerPointcuts.mapper()")
+    public Object traceMapper(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace("mapper", joinPoint);
+    }
+
+    private Object trace(String layer, ProceedingJoinPoint joinPoint) throws Throwable {
+        if (tracer.currentSpan() == null) {
+            return joinPoint.proceed();
+        }
+
+        Span span = tracer.startSpan(layer,
+                LayerPointcuts.className(joinPoint) + "." + joinPoint.getSignature().getName());
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.tag("error", e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            tracer.finish(span);
+        }
+    }
+}
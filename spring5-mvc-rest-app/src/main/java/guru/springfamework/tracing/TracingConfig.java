@@ -0,0 +1,69 @@
+package guru.springfamework.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Request tracing, configured through the tracing.* properties: sample rate, exporter (memory or file) and
+ * whether SQL spans count the rows read from each ResultSet.
+ */
+@Configuration
+@ConditionalOnProperty(name = "tracing.enabled", matchIfMissing = true)
+public class TracingConfig {
+
+    @Bean
+    public SpanExporter spanExporter(ObjectMapper objectMapper,
+                                     @Value("${tracing.exporter:memory}") String exporter,
+                                     @Value("${tracing.file:traces.ndjson}") String file,
+                                     @Value("${tracing.memory.max-traces:100}") int maxTraces) throws IOException {
+        if ("file".equals(exporter)) {
+            return new FileSpanExporter(objectMapper, Paths.get(file));
+        }
+        return new InMemorySpanExporter(maxTraces);
+    }
+
+    @Bean
+    public Tracer tracer(SpanExporter spanExporter, @Value("${tracing.sample-rate:0.01}") double sampleRate) {
+        return new Tracer(sampleRate, spanExporter);
+    }
+
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(Tracer tracer) {
+        FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(new TracingFilter(tracer));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public TracingAspect tracingAspect(Tracer tracer) {
+        return new TracingAspect(tracer);
+    }
+
+    @Bean
+    public TracesEndpoint tracesEndpoint(SpanExporter spanExporter) {
+        return new TracesEndpoint(spanExporter);
+    }
+
+    @Bean
+    public SqlTracingListener sqlTracingListener(Tracer tracer) {
+        return new SqlTracingListener(tracer);
+    }
+
+    /**
+     * Makes DataSourceProxyConfig proxy every ResultSet, the one part of tracing that costs unsampled
+     * requests too.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "tracing.sql.row-counts", matchIfMissing = true)
+    public ResultSetRowCounter resultSetRowCounter(Tracer tracer) {
+        return new ResultSetRowCounter(tracer);
+    }
+}
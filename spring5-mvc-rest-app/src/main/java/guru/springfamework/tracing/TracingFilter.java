@@ -0,0 +1,63 @@
+package guru.springfamework.tracing;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Opens the root span of each request and propagates the trace through the W3C {@code traceparent} header:
+ * an incoming header continues the caller's trace and keeps its sampling decision, and the response carries
+ * the header back so a slow call can be looked up by its trace id.
+ */
+public class TracingFilter extends OncePerRequestFilter {
+    public static final String TRACEPARENT = "traceparent";
+
+    private static final Pattern TRACEPARENT_FORMAT =
+            Pattern.compile("00-([0-9a-f]{32})-([0-9a-f]{16})-([0-9a-f]{2})");
+
+    private final Tracer tracer;
+
+    public TracingFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String traceId;
+        String parentId = null;
+        boolean sampled;
+
+        String traceparent = request.getHeader(TRACEPARENT);
+        Matcher matcher = traceparent == null ? null : TRACEPARENT_FORMAT.matcher(traceparent);
+        if (matcher != null && matcher.matches()) {
+            traceId = matcher.group(1);
+            parentId = matcher.group(2);
+            sampled = (Integer.parseInt(matcher.group(3), 16) & 1) == 1;
+        } else {
+            traceId = Tracer.newTraceId();
+            sampled = tracer.sample();
+        }
+
+        if (!sampled) {
+            response.setHeader(TRACEPARENT, "00-" + traceId + "-" + Tracer.newSpanId() + "-00");
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Span span = tracer.startTrace(traceId, parentId, "http", request.getMethod() + " " + request.getRequestURI());
+        response.setHeader(TRACEPARENT, "00-" + traceId + "-" + span.getSpanId() + "-01");
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            span.tag("status", response.getStatus());
+            tracer.finish(span);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package guru.springfamework.config;
+
+import guru.springfamework.api.v1.mapper.CategoryMapper;
+import guru.springfamework.repositories.CategoryRepository;
+import guru.springfamework.services.CategoryCatalog;
+import guru.springfamework.services.CategoryService;
+import guru.springfamework.services.CategoryServiceImpl;
+import guru.springfamework.services.ResourceNotFoundException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.when;
+
+public class LayerMetricsAspectTest {
+    @Mock
+    CategoryRepository categoryRepository;
+
+    @Mock
+    CategoryCatalog categoryCatalog;
+
+    SimpleMeterRegistry meterRegistry;
+
+    CategoryService categoryService;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(
+                new CategoryServiceImpl(CategoryMapper.INSTANCE, categoryRepository, categoryCatalog));
+        proxyFactory.addAspect(new LayerMetricsAspect(meterRegistry));
+        categoryService = proxyFactory.getProxy();
+    }
+
+    @Test
+    public void timesServiceCalls() {
+        when(categoryCatalog.findAll()).thenReturn(Collections.emptyList());
+
+        categoryService.getAllCategories();
+        categoryService.getAllCategories();
+
+        Timer timer = meterRegistry.get(LayerMetricsAspect.METRIC_NAME)
+                .tag("layer", "service")
+                .tag("class", "CategoryServiceImpl")
+                .tag("method", "getAllCategories")
+                .tag("exception", "none")
+                .timer();
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    public void tagsFailedCallsWithTheException() {
+        try {
+            categoryService.getCategoryByName("Missing");
+            fail("expected ResourceNotFoundException");
+        } catch (ResourceNotFoundException e) {
+            // expected
+        }
+
+        Timer timer = meterRegistry.get(LayerMetricsAspect.METRIC_NAME)
+                .tag("method", "getCategoryByName")
+                .tag("exception", "ResourceNotFoundException")
+                .timer();
+        assertEquals(1, timer.count());
+    }
+}
@@ -0,0 +1,53 @@
+package guru.springfamework.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import guru.springfamework.api.v1.model.CategoryDTO;
+import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.api.v1.model.VendorListDTO;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ProtobufJackson2HttpMessageConverterTest {
+
+    ProtobufJackson2HttpMessageConverter converter;
+
+    @Before
+    public void setUp() throws Exception {
+        converter = new ProtobufJackson2HttpMessageConverter(new ObjectMapper(new ProtobufFactory()),
+                ProtobufJackson2HttpMessageConverter.loadSchemas(VendorDTO.class, VendorListDTO.class));
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        VendorListDTO vendorListDTO = new VendorListDTO(Arrays.asList(
+                new VendorDTO("Vendor 1", "/api/v1/vendors/1"),
+                new VendorDTO("Vendor 2", "/api/v1/vendors/2")));
+
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        converter.write(vendorListDTO, ProtobufJackson2HttpMessageConverter.APPLICATION_PROTOBUF, outputMessage);
+        byte[] body = outputMessage.getBodyAsBytes();
+
+        VendorListDTO read = (VendorListDTO) converter.read(VendorListDTO.class, new MockHttpInputMessage(body));
+
+        assertEquals(vendorListDTO.getVendors(), read.getVendors());
+        assertNull(read.getNextUrl());
+        // two tagged, length-prefixed messages of two strings each, no property names
+        assertTrue(body.length < 80);
+    }
+
+    @Test
+    public void testOnlyClassesWithAMessage() {
+        assertTrue(converter.canWrite(VendorDTO.class, ProtobufJackson2HttpMessageConverter.APPLICATION_PROTOBUF));
+        assertFalse(converter.canWrite(CategoryDTO.class, ProtobufJackson2HttpMessageConverter.APPLICATION_PROTOBUF));
+    }
+}
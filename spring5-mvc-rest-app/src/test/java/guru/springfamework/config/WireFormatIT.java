@@ -0,0 +1,91 @@
+package guru.springfamework.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import guru.springfamework.controllers.v1.CustomerController;
+import guru.springfamework.domain.Customer;
+import guru.springfamework.repositories.CustomerRepository;
+import guru.springframework.model.CustomerDTO;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.Assert.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Each binary format from a customer endpoint, through the converters and mappers Spring Boot configures, links
+ * included.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class WireFormatIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    Long id;
+
+    @Before
+    public void setUp() throws Exception {
+        id = customerRepository.save(new Customer(null, null, "Sam", "Axe")).getId();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        customerRepository.deleteById(id);
+    }
+
+    @Test
+    public void cbor() throws Exception {
+        assertCustomer(new ObjectMapper(new CBORFactory()).readerFor(CustomerDTO.class),
+                customer(MediaType.APPLICATION_CBOR));
+    }
+
+    @Test
+    public void smile() throws Exception {
+        assertCustomer(new ObjectMapper(new SmileFactory()).readerFor(CustomerDTO.class),
+                customer(MediaType.valueOf("application/x-jackson-smile")));
+    }
+
+    @Test
+    public void protobuf() throws Exception {
+        ProtobufSchema schema = ProtobufJackson2HttpMessageConverter.loadSchemas(CustomerDTO.class)
+                .get(CustomerDTO.class);
+
+        assertCustomer(new ObjectMapper(new ProtobufFactory()).readerFor(CustomerDTO.class).with(schema),
+                customer(ProtobufJackson2HttpMessageConverter.APPLICATION_PROTOBUF));
+    }
+
+    private byte[] customer(MediaType mediaType) throws Exception {
+        return mockMvc.perform(get(CustomerController.API_V1_CUSTOMERS + id).accept(mediaType))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(mediaType))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    private void assertCustomer(ObjectReader reader, byte[] body) throws Exception {
+        CustomerDTO customerDTO = reader.readValue(body);
+
+        assertEquals("Sam", customerDTO.getFirstname());
+        assertEquals("Axe", customerDTO.getLastname());
+        assertEquals("http://localhost" + CustomerController.API_V1_CUSTOMERS + id, customerDTO.getCustomerUrl());
+    }
+}
@@ -0,0 +1,107 @@
+package guru.springfamework.controllers.v1;
+
+import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.services.AsyncVendorService;
+import guru.springfamework.services.ResourceNotFoundException;
+import guru.springfamework.services.VendorService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@WebMvcTest(controllers = AsyncVendorController.class, properties = "async.enabled=true")
+public class AsyncVendorControllerTest extends AbstractRestControllerTest {
+
+    @MockBean
+    AsyncVendorService asyncVendorService;
+
+    @MockBean
+    VendorService vendorService;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    VendorDTO vendorDTO;
+
+    @Before
+    public void setUp() throws Exception {
+        vendorDTO = new VendorDTO("Vendor 1", VendorController.VENDOR_API_V1_URL + "/1");
+    }
+
+    @Test
+    public void getVendorById() throws Exception {
+        given(asyncVendorService.getVendorVersion(1L)).willReturn(CompletableFuture.completedFuture(3L));
+        given(asyncVendorService.getVendorById(1L)).willReturn(CompletableFuture.completedFuture(vendorDTO));
+
+        MvcResult mvcResult = mockMvc.perform(get(VendorController.VENDOR_API_V1_URL + "/1")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(jsonPath("$.name", equalTo(vendorDTO.getName())));
+    }
+
+    @Test
+    public void getVendorByIdNotModified() throws Exception {
+        given(asyncVendorService.getVendorVersion(1L)).willReturn(CompletableFuture.completedFuture(3L));
+
+        MvcResult mvcResult = mockMvc.perform(get(VendorController.VENDOR_API_V1_URL + "/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "W/\"3\"")
+                .accept(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isNotModified());
+        then(asyncVendorService).should(never()).getVendorById(anyLong());
+    }
+
+    @Test
+    public void getVendorByIdNotFound() throws Exception {
+        CompletableFuture<Long> notFound = new CompletableFuture<>();
+        notFound.completeExceptionally(new ResourceNotFoundException());
+        given(asyncVendorService.getVendorVersion(1L)).willReturn(notFound);
+
+        MvcResult mvcResult = mockMvc.perform(get(VendorController.VENDOR_API_V1_URL + "/1")
+                .accept(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void getVendorListWhenQueueIsFull() throws Exception {
+        given(asyncVendorService.getAllVendors()).willThrow(new RejectedExecutionException());
+
+        mockMvc.perform(get(VendorController.VENDOR_API_V1_URL)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+}
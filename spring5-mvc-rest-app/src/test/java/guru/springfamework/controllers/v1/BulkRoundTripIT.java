@@ -0,0 +1,90 @@
+package guru.springfamework.controllers.v1;
+
+import guru.springfamework.domain.Customer;
+import guru.springfamework.domain.Vendor;
+import guru.springfamework.repositories.CustomerRepository;
+import guru.springfamework.repositories.VendorRepository;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * What a GET returns, absolute links included, can be posted back to the bulk endpoints as it is.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BulkRoundTripIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    VendorRepository vendorRepository;
+
+    @Test
+    public void customerFromGetUpdatesThroughBulk() throws Exception {
+        Long id = customerRepository.save(new Customer(null, null, "Sam", "Axe")).getId();
+        try {
+            String customer = mockMvc.perform(get(CustomerController.API_V1_CUSTOMERS + id)
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.customerUrl", startsWith("http://")))
+                    .andReturn().getResponse().getContentAsString();
+
+            mockMvc.perform(post(CustomerController.API_V1_CUSTOMERS + "bulk")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_JSON)
+                            .content("{\"customers\":[" + customer.replace("\"Sam\"", "\"Samuel\"") + "]}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.updated", equalTo(1)))
+                    .andExpect(jsonPath("$.failed", equalTo(0)));
+
+            assertEquals("Samuel", customerRepository.findById(id).get().getFirstName());
+        } finally {
+            customerRepository.deleteById(id);
+        }
+    }
+
+    @Test
+    public void vendorFromGetUpdatesThroughBatch() throws Exception {
+        Vendor saved = new Vendor();
+        saved.setName("Round Trip Fruits");
+        Long id = vendorRepository.save(saved).getId();
+        try {
+            String vendor = mockMvc.perform(get(VendorController.VENDOR_API_V1_URL + "/" + id)
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.vendor_url", startsWith("http://")))
+                    .andReturn().getResponse().getContentAsString();
+
+            mockMvc.perform(post(VendorController.VENDOR_API_V1_URL + "/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_JSON)
+                            .content("{\"vendors\":[" + vendor.replace("Round Trip", "Returned") + "]}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.updated", equalTo(1)))
+                    .andExpect(jsonPath("$.failed", equalTo(0)));
+
+            assertEquals("Returned Fruits", vendorRepository.findById(id).get().getName());
+        } finally {
+            vendorRepository.deleteById(id);
+        }
+    }
+}
@@ -1,15 +1,17 @@
 package guru.springfamework.controllers.v1;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import guru.springfamework.api.v1.model.CategoryDTO;
 import guru.springfamework.services.CategoryService;
 import guru.springfamework.services.ResourceNotFoundException;
 import org.junit.Before;
 import org.junit.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.Arrays;
@@ -20,9 +22,12 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.xpath;
 
 public class CategoryControllerTest {
     private static final String NAME = "Jim";
@@ -30,7 +35,6 @@ public class CategoryControllerTest {
     @Mock
     CategoryService categoryService;
 
-    @InjectMocks
     CategoryController categoryController;
 
     MockMvc mockMvc;
@@ -39,6 +43,8 @@ public class CategoryControllerTest {
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
 
+        categoryController = new CategoryController(categoryService,
+                new CategoryListResponseCache(categoryService, new ObjectMapper()));
         mockMvc = MockMvcBuilders.standaloneSetup(categoryController).setControllerAdvice(new RestResponseEntityExceptionHandler()).build();
     }
 
@@ -63,6 +69,34 @@ public class CategoryControllerTest {
                 .andExpect(jsonPath("$.categories", hasSize(2)));
     }
 
+    @Test
+    public void testListCategoriesNotModified() throws Exception {
+        when(categoryService.getAllCategories()).thenReturn(getCategoryDTOS());
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/v1/categories")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn();
+
+        mockMvc.perform(get("/api/v1/categories")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_NONE_MATCH, mvcResult.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    public void testListCategoriesAsXml() throws Exception {
+        when(categoryService.getAllCategories()).thenReturn(getCategoryDTOS());
+
+        mockMvc.perform(get("/api/v1/categories")
+                        .accept(MediaType.APPLICATION_XML))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_XML))
+                .andExpect(xpath("count(/CategoryListDTO/categories/categories)").number(2d));
+    }
+
     @Test
     public void testGetByNameCategories() throws Exception {
         CategoryDTO categoryDTO = new CategoryDTO();
@@ -70,6 +104,7 @@ public class CategoryControllerTest {
         categoryDTO.setName(NAME);
 
         when(categoryService.getCategoryByName(anyString())).thenReturn(categoryDTO);
+        when(categoryService.getCatalogVersion()).thenReturn("abc");
 
         mockMvc.perform(get("/api/v1/categories/"+ NAME)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -87,4 +122,16 @@ public class CategoryControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
+
+    private List<CategoryDTO> getCategoryDTOS() {
+        CategoryDTO categoryDTO = new CategoryDTO();
+        categoryDTO.setId(1L);
+        categoryDTO.setName(NAME);
+
+        CategoryDTO categoryDTO2 = new CategoryDTO();
+        categoryDTO2.setId(2L);
+        categoryDTO2.setName("Bob");
+
+        return Arrays.asList(categoryDTO, categoryDTO2);
+    }
 }
\ No newline at end of file
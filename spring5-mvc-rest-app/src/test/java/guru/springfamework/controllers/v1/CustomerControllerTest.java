@@ -1,41 +1,57 @@
 package guru.springfamework.controllers.v1;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springfamework.api.v1.model.BulkDeleteResultDTO;
+import guru.springfamework.domain.Customer;
 import guru.springfamework.services.CustomerService;
 import guru.springfamework.services.ResourceNotFoundException;
+import guru.springframework.model.BulkItemStatus;
+import guru.springframework.model.CustomerBulkItemResultDTO;
+import guru.springframework.model.CustomerBulkResultDTO;
 import guru.springframework.model.CustomerDTO;
+import guru.springframework.model.CustomerListDTO;
 import org.junit.Before;
 import org.junit.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.Consumer;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 public class CustomerControllerTest extends AbstractRestControllerTest {
     @Mock
     CustomerService customerService;
 
-    @InjectMocks
     CustomerController controller;
 
     MockMvc mockMvc;
@@ -44,6 +60,7 @@ public class CustomerControllerTest extends AbstractRestControllerTest {
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
 
+        controller = new CustomerController(customerService, new ObjectMapper());
         mockMvc = MockMvcBuilders.standaloneSetup(controller).setControllerAdvice(new RestResponseEntityExceptionHandler()).build();
     }
 
@@ -68,6 +85,61 @@ public class CustomerControllerTest extends AbstractRestControllerTest {
                 .andExpect(jsonPath("$.customers",  hasSize(2)));
     }
 
+    @Test
+    public void testExportCustomersAsNdjson() throws Exception {
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstname("Calebe");
+
+        CustomerDTO customerDTO2 = new CustomerDTO();
+        customerDTO2.setFirstname("Joe");
+
+        doAnswer(invocation -> {
+            Consumer<CustomerDTO> consumer = invocation.getArgument(0);
+            consumer.accept(customerDTO);
+            consumer.accept(customerDTO2);
+            return null;
+        }).when(customerService).exportCustomers(any());
+
+        MvcResult mvcResult = mockMvc.perform(get(getCustomerUrl() + "export")
+                        .accept(JsonStreamingResponses.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(JsonStreamingResponses.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("\"firstname\":\"Calebe\"")))
+                .andExpect(content().string(containsString("\"firstname\":\"Joe\"")));
+    }
+
+    @Test
+    public void testSearchCustomers() throws Exception {
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstname("Sam");
+        customerDTO.setLastname("Axe");
+
+        CustomerListDTO customerListDTO = new CustomerListDTO();
+        customerListDTO.getCustomers().add(customerDTO);
+
+        when(customerService.searchCustomers("Axe", null, true, null, null)).thenReturn(customerListDTO);
+
+        mockMvc.perform(get(getCustomerUrl() + "search")
+                        .param("lastname", " Axe ")
+                        .param("firstname", "")
+                        .param("prefix", "true")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers", hasSize(1)))
+                .andExpect(jsonPath("$.customers[0].lastname", equalTo("Axe")));
+    }
+
+    @Test
+    public void testSearchCustomersWithoutNames() throws Exception {
+        mockMvc.perform(get(getCustomerUrl() + "search")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void testGetCustomerById() throws Exception {
         CustomerDTO customerDTO = new CustomerDTO();
@@ -75,6 +147,7 @@ public class CustomerControllerTest extends AbstractRestControllerTest {
         customerDTO.setLastname("Oliveira");
         customerDTO.setCustomerUrl("smt");
 
+        when(customerService.getCustomerVersion(anyLong())).thenReturn(0L);
         when(customerService.getCustomerById(anyLong())).thenReturn(customerDTO);
 
         mockMvc.perform(get(getCustomerUrl() + "1")
@@ -110,6 +183,55 @@ public class CustomerControllerTest extends AbstractRestControllerTest {
 
     }
 
+    @Test
+    public void testCreateNewCustomersInBulk() throws Exception {
+        //given
+        CustomerListDTO customerListDTO = new CustomerListDTO();
+        customerListDTO.getCustomers().addAll(Arrays.asList(new CustomerDTO(), new CustomerDTO()));
+
+        when(customerService.upsertCustomers(any())).thenAnswer(invocation -> bulkResultOf(invocation.getArgument(0)));
+
+        //when/then
+        mockMvc.perform(post(getCustomerUrl() + "bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(customerListDTO))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", equalTo(2)))
+                .andExpect(jsonPath("$.results", hasSize(2)))
+                .andExpect(jsonPath("$.results[1].status", equalTo("CREATED")));
+    }
+
+    @Test
+    public void testCreateNewCustomersInBulkFromNdjson() throws Exception {
+        //given
+        when(customerService.upsertCustomers(any())).thenAnswer(invocation -> bulkResultOf(invocation.getArgument(0)));
+
+        //when/then
+        mockMvc.perform(post(getCustomerUrl() + "bulk")
+                        .contentType(JsonStreamingResponses.APPLICATION_NDJSON)
+                        .content("{\"firstname\":\"Fred\"}\n{\"firstname\":\"Wilma\"}\n{\"firstname\":\"Barney\"}\n")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", equalTo(3)))
+                .andExpect(jsonPath("$.results[2].customerUrl", equalTo("/api/v1/customers/3")));
+    }
+
+    private static CustomerBulkResultDTO bulkResultOf(Iterator<CustomerDTO> customerDTOS) {
+        CustomerBulkResultDTO bulkResult = new CustomerBulkResultDTO();
+        while (customerDTOS.hasNext()) {
+            customerDTOS.next();
+
+            CustomerBulkItemResultDTO itemResult = new CustomerBulkItemResultDTO();
+            itemResult.setIndex(bulkResult.getCreated());
+            itemResult.setStatus(BulkItemStatus.CREATED);
+            itemResult.setCustomerUrl(CustomerController.API_V1_CUSTOMERS + (bulkResult.getCreated() + 1));
+            bulkResult.getResults().add(itemResult);
+            bulkResult.setCreated(bulkResult.getCreated() + 1);
+        }
+        return bulkResult;
+    }
+
     @Test
     public void testUpdateCustomer() throws Exception {
         //given
@@ -122,7 +244,7 @@ public class CustomerControllerTest extends AbstractRestControllerTest {
         returnedDto.setLastname(customerDTO.getLastname());
         returnedDto.setCustomerUrl(getCustomerUrl() + "1");
 
-        when(customerService.saveCustomerByDTO(anyLong(), any())).thenReturn(returnedDto);
+        when(customerService.saveCustomerByDTO(anyLong(), any(), any())).thenReturn(returnedDto);
 
         //when/then
         mockMvc.perform(put(getCustomerUrl() + "1")
@@ -147,7 +269,7 @@ public class CustomerControllerTest extends AbstractRestControllerTest {
         returnedDto.setLastname("Flinstone");
         returnedDto.setCustomerUrl(getCustomerUrl() + "1");
 
-        when(customerService.patchCustomer(anyLong(), any())).thenReturn(returnedDto);
+        when(customerService.patchCustomer(anyLong(), any(), any())).thenReturn(returnedDto);
 
         //when/then
         mockMvc.perform(patch(getCustomerUrl() + "1")
@@ -161,6 +283,43 @@ public class CustomerControllerTest extends AbstractRestControllerTest {
 
     }
 
+    @Test
+    public void testUpdateCustomerPassesIfMatchVersion() throws Exception {
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstname("Fred");
+
+        when(customerService.saveCustomerByDTO(eq(1L), any(), eq(4L))).thenReturn(customerDTO);
+
+        mockMvc.perform(put(getCustomerUrl() + "1")
+                        .header(HttpHeaders.IF_MATCH, "\"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(customerDTO)))
+                .andExpect(status().isOk());
+
+        verify(customerService, times(1)).saveCustomerByDTO(eq(1L), any(), eq(4L));
+    }
+
+    @Test
+    public void testUpdateCustomerStaleIfMatch() throws Exception {
+        when(customerService.saveCustomerByDTO(eq(1L), any(), eq(3L)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Customer.class, 1L));
+
+        mockMvc.perform(put(getCustomerUrl() + "1")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(new CustomerDTO())))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    public void testUpdateCustomerUnparseableIfMatch() throws Exception {
+        mockMvc.perform(put(getCustomerUrl() + "1")
+                        .header(HttpHeaders.IF_MATCH, "\"not-a-version\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(new CustomerDTO())))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     public void testDeleteCustomer() throws Exception {
         //given
@@ -176,9 +335,31 @@ public class CustomerControllerTest extends AbstractRestControllerTest {
         verify(customerService, times(1)).deleteCustomerById(anyLong());
     }
 
+    @Test
+    public void testDeleteMissingCustomer() throws Exception {
+        doThrow(new ResourceNotFoundException()).when(customerService).deleteCustomerById(9L);
+
+        mockMvc.perform(delete(getCustomerUrl() + "9"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testDeleteCustomersInBulk() throws Exception {
+        when(customerService.deleteCustomersById(Arrays.asList(1L, 2L, 9L)))
+                .thenReturn(new BulkDeleteResultDTO(3, 2));
+
+        mockMvc.perform(post(getCustomerUrl() + "bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content("[1, 2, 9]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested", equalTo(3)))
+                .andExpect(jsonPath("$.deleted", equalTo(2)));
+    }
+
     @Test
     public void testNotFoundException() throws Exception {
-        when(customerService.getCustomerById(anyLong())).thenThrow(ResourceNotFoundException.class);
+        when(customerService.getCustomerVersion(anyLong())).thenThrow(ResourceNotFoundException.class);
 
         mockMvc.perform(get(getCustomerUrl() + "222")
                 .contentType(MediaType.APPLICATION_JSON))
@@ -0,0 +1,123 @@
+package guru.springfamework.controllers.v1;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springfamework.api.v1.model.LinkedCustomerDTO;
+import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.api.v1.model.VendorListDTO;
+import guru.springfamework.config.ResourceLinksConfig;
+import guru.springframework.model.BulkItemStatus;
+import guru.springframework.model.CustomerBulkItemResultDTO;
+import guru.springframework.model.CustomerListDTO;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+public class ResourceLinksTest {
+
+    ObjectMapper objectMapper;
+    MockHttpServletRequest request;
+
+    @Before
+    public void setUp() throws Exception {
+        RequestContextHolder.resetRequestAttributes();
+        objectMapper = new ObjectMapper().registerModule(new ResourceLinksConfig().resourceLinksModule());
+
+        request = new MockHttpServletRequest("GET", "/shop/api/v1/vendors");
+        request.setScheme("https");
+        request.setServerName("api.example.com");
+        request.setServerPort(443);
+        request.setContextPath("/shop");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void testLinksAreAbsolute() throws Exception {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        String json = objectMapper.writeValueAsString(Arrays.asList(vendor("Vendor 1", 1L),
+                vendor("Vendor 2", 1234567890L)));
+
+        assertEquals("[{\"name\":\"Vendor 1\",\"vendor_url\":\"https://api.example.com/shop/api/v1/vendors/1\"},"
+                + "{\"name\":\"Vendor 2\",\"vendor_url\":\"https://api.example.com/shop/api/v1/vendors/1234567890\"}]",
+                json);
+    }
+
+    @Test
+    public void testCustomerLinkIsWrittenFromItsIdAndTheIdIsNot() throws Exception {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        LinkedCustomerDTO customerDTO = new LinkedCustomerDTO();
+        customerDTO.setFirstname("Sam");
+        customerDTO.setId(1L);
+
+        assertEquals("{\"firstname\":\"Sam\",\"lastname\":null,"
+                + "\"customerUrl\":\"https://api.example.com/shop/api/v1/customers/1\"}",
+                objectMapper.writeValueAsString(customerDTO));
+    }
+
+    @Test
+    public void testNextPageLinksAreAbsolute() throws Exception {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        CustomerListDTO customers = new CustomerListDTO();
+        customers.setNextUrl("/api/v1/customers?after=2&limit=2");
+        VendorListDTO vendors = new VendorListDTO(Collections.emptyList(), "/api/v1/vendors?after=2&limit=2");
+
+        assertEquals("{\"customers\":[],"
+                + "\"nextUrl\":\"https://api.example.com/shop/api/v1/customers?after=2&limit=2\"}",
+                objectMapper.writeValueAsString(customers));
+        assertEquals("{\"vendors\":[],"
+                + "\"next_url\":\"https://api.example.com/shop/api/v1/vendors?after=2&limit=2\"}",
+                objectMapper.writeValueAsString(vendors));
+    }
+
+    @Test
+    public void testLinksCanBeTurnedOff() throws Exception {
+        request.setParameter(ResourceLinks.LINKS_PARAM, "false");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        LinkedCustomerDTO customerDTO = new LinkedCustomerDTO();
+        customerDTO.setFirstname("Sam");
+        customerDTO.setId(1L);
+
+        assertEquals("{\"firstname\":\"Sam\",\"lastname\":null}", objectMapper.writeValueAsString(customerDTO));
+    }
+
+    @Test
+    public void testLinksStayRelativeOutsideARequest() throws Exception {
+        String json = objectMapper.writeValueAsString(vendor("Vendor 1", 1L));
+
+        assertEquals("{\"name\":\"Vendor 1\",\"vendor_url\":\"/api/v1/vendors/1\"}", json);
+    }
+
+    @Test
+    public void testFailedItemKeepsTheUrlItWasSent() throws Exception {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        CustomerBulkItemResultDTO itemResult = new CustomerBulkItemResultDTO();
+        itemResult.setStatus(BulkItemStatus.FAILED);
+        itemResult.setCustomerUrl("/api/v1/customers/x");
+
+        assertEquals("{\"index\":0,\"status\":\"FAILED\","
+                + "\"customerUrl\":\"https://api.example.com/shop/api/v1/customers/x\",\"error\":null}",
+                objectMapper.writeValueAsString(itemResult));
+    }
+
+    private static VendorDTO vendor(String name, Long id) {
+        VendorDTO vendorDTO = new VendorDTO(name, null);
+        vendorDTO.setId(id);
+        return vendorDTO;
+    }
+}
@@ -1,7 +1,11 @@
 package guru.springfamework.controllers.v1;
 
+import guru.springfamework.api.v1.model.VendorBatchItemResultDTO;
+import guru.springfamework.api.v1.model.VendorBatchResultDTO;
 import guru.springfamework.api.v1.model.VendorDTO;
 import guru.springfamework.api.v1.model.VendorListDTO;
+import guru.springfamework.config.ResourceLinksConfig;
+import guru.springfamework.domain.Vendor;
 import guru.springfamework.services.VendorService;
 import org.junit.Before;
 import org.junit.Test;
@@ -10,7 +14,10 @@ import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -21,19 +28,23 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
 @WebMvcTest(controllers = VendorController.class)
+@Import(ResourceLinksConfig.class)
 public class VendorControllerTest extends AbstractRestControllerTest {
 
     @MockBean //provided by Spring Context
@@ -65,16 +76,47 @@ public class VendorControllerTest extends AbstractRestControllerTest {
                 .andExpect(jsonPath("$.vendors", hasSize(vendorListDTO.getVendors().size())));
     }
 
+    @Test
+    public void getVendorPage() throws Exception {
+        VendorListDTO vendorListDTO = new VendorListDTO(Arrays.asList(vendorDTO1, vendorDTO2),
+                VendorController.VENDOR_API_V1_URL + "?after=2&limit=2");
+
+        given(vendorService.getVendorPage(1L, 2)).willReturn(vendorListDTO);
+
+        mockMvc.perform(get(VendorController.VENDOR_API_V1_URL)
+                .param("after", "1")
+                .param("limit", "2")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.vendors", hasSize(2)))
+                .andExpect(jsonPath("$.next_url",
+                        equalTo("http://localhost" + VendorController.VENDOR_API_V1_URL + "?after=2&limit=2")));
+    }
+
     @Test
     public void getVendorById() throws Exception {
+        given(vendorService.getVendorVersion(anyLong())).willReturn(0L);
         given(vendorService.getVendorById(anyLong())).willReturn(vendorDTO1);
 
         mockMvc.perform(get(VendorController.VENDOR_API_V1_URL + "/1")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
                 .andExpect(jsonPath("$.name", equalTo(vendorDTO1.getName())));
     }
 
+    @Test
+    public void getVendorByIdNotModified() throws Exception {
+        given(vendorService.getVendorVersion(anyLong())).willReturn(3L);
+
+        mockMvc.perform(get(VendorController.VENDOR_API_V1_URL + "/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+
+        then(vendorService).should(never()).getVendorById(anyLong());
+    }
+
     @Test
     public void createNewVendor() throws Exception {
         given(vendorService.createNewVendor(vendorDTO1)).willReturn(vendorDTO1);
@@ -89,7 +131,7 @@ public class VendorControllerTest extends AbstractRestControllerTest {
 
     @Test
     public void updateVendor() throws Exception {
-        given(vendorService.saveVendorByDto(any(), any(VendorDTO.class))).willReturn(vendorDTO1);
+        given(vendorService.saveVendorByDto(any(), any(VendorDTO.class), any())).willReturn(vendorDTO1);
 
         mockMvc.perform(put(VendorController.VENDOR_API_V1_URL + "/1")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -100,7 +142,7 @@ public class VendorControllerTest extends AbstractRestControllerTest {
 
     @Test
     public void patchVendor() throws Exception {
-        given(vendorService.patchVendor(any(), any(VendorDTO.class))).willReturn(vendorDTO1);
+        given(vendorService.patchVendor(any(), any(VendorDTO.class), any())).willReturn(vendorDTO1);
 
         mockMvc.perform(patch(VendorController.VENDOR_API_V1_URL + "/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -109,6 +151,39 @@ public class VendorControllerTest extends AbstractRestControllerTest {
                 .andExpect(jsonPath("$.name", equalTo(vendorDTO1.getName())));
     }
 
+    @Test
+    public void upsertVendors() throws Exception {
+        VendorBatchResultDTO batchResult = new VendorBatchResultDTO();
+        batchResult.add(new VendorBatchItemResultDTO(VendorBatchItemResultDTO.Status.UPDATED, 1L));
+        VendorBatchItemResultDTO failed = new VendorBatchItemResultDTO(VendorBatchItemResultDTO.Status.FAILED, null);
+        failed.setIndex(1);
+        failed.setError("rejected");
+        batchResult.add(failed);
+
+        given(vendorService.upsertVendors(any())).willReturn(batchResult);
+
+        mockMvc.perform(post(VendorController.VENDOR_API_V1_URL + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(new VendorListDTO(Arrays.asList(vendorDTO1, new VendorDTO("New", null))))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated", equalTo(1)))
+                .andExpect(jsonPath("$.failed", equalTo(1)))
+                .andExpect(jsonPath("$.results[0].vendor_url", equalTo("http://localhost/api/v1/vendors/1")))
+                .andExpect(jsonPath("$.results[1].error", equalTo("rejected")));
+    }
+
+    @Test
+    public void patchVendorVersionConflict() throws Exception {
+        given(vendorService.patchVendor(eq(1L), any(VendorDTO.class), eq(2L)))
+                .willThrow(new ObjectOptimisticLockingFailureException(Vendor.class, 1L));
+
+        mockMvc.perform(patch(VendorController.VENDOR_API_V1_URL + "/1")
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(vendorDTO1)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     public void deleteVendor() throws Exception {
         mockMvc.perform(delete(VendorController.VENDOR_API_V1_URL + "/1"))
@@ -0,0 +1,109 @@
+package guru.springfamework.repositories;
+
+import guru.springfamework.domain.Customer;
+import guru.springfamework.domain.Vendor;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest
+public class ModifyingQueriesIT {
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    VendorRepository vendorRepository;
+
+    Customer customer;
+
+    @Before
+    public void setUp() throws Exception {
+        customer = customerRepository.saveAndFlush(new Customer(null, null, "Sam", "Axe"));
+    }
+
+    @Test
+    public void testPatchKeepsTheNamesNotGiven() {
+        int updated = customerRepository.patch(customer.getId(), null, "Axelrod", null);
+
+        Customer patched = customerRepository.findById(customer.getId()).get();
+        assertEquals(1, updated);
+        assertEquals("Sam", patched.getFirstName());
+        assertEquals("Axelrod", patched.getLastName());
+        assertEquals(Long.valueOf(customer.getVersion() + 1), patched.getVersion());
+    }
+
+    @Test
+    public void testPatchWithStaleVersionUpdatesNothing() {
+        int updated = customerRepository.patch(customer.getId(), null, "Axelrod", customer.getVersion() + 1);
+
+        assertEquals(0, updated);
+        assertEquals("Axe", customerRepository.findById(customer.getId()).get().getLastName());
+    }
+
+    @Test
+    public void testPatchMissingRowUpdatesNothing() {
+        assertEquals(0, customerRepository.patch(customer.getId() + 1000, null, "Axelrod", null));
+    }
+
+    @Test
+    public void testReplaceOverwritesEveryColumn() {
+        int updated = customerRepository.replace(customer.getId(), null, "Axelrod", customer.getVersion());
+
+        Customer replaced = customerRepository.findById(customer.getId()).get();
+        assertEquals(1, updated);
+        assertNull(replaced.getFirstName());
+        assertEquals("Axelrod", replaced.getLastName());
+        assertEquals(Long.valueOf(customer.getVersion() + 1), replaced.getVersion());
+    }
+
+    @Test
+    public void testReplaceMissingRowUpdatesNothing() {
+        assertEquals(0, customerRepository.replace(customer.getId() + 1000, null, "Axelrod", null));
+    }
+
+    @Test
+    public void testDeleteByIdsCountsTheRowsThatExisted() {
+        Customer other = customerRepository.saveAndFlush(new Customer(null, null, "Michele", "Weston"));
+
+        int deleted = customerRepository.deleteByIds(
+                Arrays.asList(customer.getId(), other.getId(), other.getId() + 1000));
+
+        assertEquals(2, deleted);
+        assertFalse(customerRepository.findById(customer.getId()).isPresent());
+        assertEquals(0, customerRepository.count());
+    }
+
+    @Test
+    public void testFindExistingIdsLeavesOutMissingRows() {
+        assertEquals(Collections.singletonList(customer.getId()),
+                customerRepository.findExistingIds(Arrays.asList(customer.getId(), customer.getId() + 1000)));
+    }
+
+    @Test
+    public void testDeleteByIdsMissingRowDeletesNothing() {
+        assertEquals(0, customerRepository.deleteByIds(Collections.singletonList(customer.getId() + 1000)));
+    }
+
+    @Test
+    public void testPatchVendorAtTheExpectedVersion() {
+        Vendor vendor = vendorRepository.saveAndFlush(new Vendor(null, null, "Vendor"));
+
+        int updated = vendorRepository.patch(vendor.getId(), "Patched Vendor", vendor.getVersion());
+
+        Vendor patched = vendorRepository.findById(vendor.getId()).get();
+        assertEquals(1, updated);
+        assertEquals("Patched Vendor", patched.getName());
+        assertEquals(Long.valueOf(vendor.getVersion() + 1), patched.getVersion());
+    }
+}
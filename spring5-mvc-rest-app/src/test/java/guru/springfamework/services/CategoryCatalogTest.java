@@ -0,0 +1,77 @@
+package guru.springfamework.services;
+
+import guru.springfamework.api.v1.mapper.CategoryMapper;
+import guru.springfamework.api.v1.model.CategoryDTO;
+import guru.springfamework.domain.Category;
+import guru.springfamework.domain.CategoryChangedEvent;
+import guru.springfamework.repositories.CategoryRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CategoryCatalogTest {
+    private static final String FRUITS = "Fruits";
+    private static final String NUTS = "Nuts";
+
+    @Mock
+    CategoryRepository categoryRepository;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void loadsOnceUntilCategoriesChange() throws Exception {
+        //given
+        CategoryCatalog categoryCatalog = new CategoryCatalog(CategoryMapper.INSTANCE, categoryRepository, false);
+        when(categoryRepository.findAll())
+                .thenReturn(Arrays.asList(getCategory(1L, FRUITS)))
+                .thenReturn(Arrays.asList(getCategory(1L, FRUITS), getCategory(2L, NUTS)));
+
+        //when
+        List<CategoryDTO> before = categoryCatalog.findAll();
+
+        //then
+        assertSame(before, categoryCatalog.findAll());
+        assertNull(categoryCatalog.findByName(NUTS));
+
+        //when
+        categoryCatalog.onCategoryChanged(new CategoryChangedEvent(2L));
+
+        //then
+        assertEquals(Long.valueOf(2L), categoryCatalog.findByName(NUTS).getId());
+        assertNotSame(before, categoryCatalog.findAll());
+        verify(categoryRepository, times(2)).findAll();
+    }
+
+    @Test
+    public void caseInsensitiveLookup() throws Exception {
+        //given
+        when(categoryRepository.findAll()).thenReturn(Arrays.asList(getCategory(1L, FRUITS)));
+
+        //when
+        CategoryCatalog exact = new CategoryCatalog(CategoryMapper.INSTANCE, categoryRepository, false);
+        CategoryCatalog insensitive = new CategoryCatalog(CategoryMapper.INSTANCE, categoryRepository, true);
+
+        //then
+        assertNull(exact.findByName("fruits"));
+        assertEquals(FRUITS, insensitive.findByName("fruits").getName());
+    }
+
+    private Category getCategory(Long id, String name) {
+        Category category = new Category();
+        category.setId(id);
+        category.setName(name);
+        return category;
+    }
+}
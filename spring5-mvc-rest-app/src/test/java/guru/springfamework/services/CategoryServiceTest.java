@@ -13,7 +13,6 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.Assert.*;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 
 public class CategoryServiceTest {
@@ -27,7 +26,8 @@ public class CategoryServiceTest {
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
-        categoryService = new CategoryServiceImpl(CategoryMapper.INSTANCE, categoryRepository);
+        CategoryCatalog categoryCatalog = new CategoryCatalog(CategoryMapper.INSTANCE, categoryRepository, false);
+        categoryService = new CategoryServiceImpl(CategoryMapper.INSTANCE, categoryRepository, categoryCatalog);
     }
 
     @Test
@@ -51,7 +51,7 @@ public class CategoryServiceTest {
         category.setId(ID);
         category.setName(NAME);
 
-        when(categoryRepository.findByName(anyString())).thenReturn(category);
+        when(categoryRepository.findAll()).thenReturn(Arrays.asList(category));
 
         //when
         CategoryDTO categoryDTO = categoryService.getCategoryByName(NAME);
@@ -60,4 +60,13 @@ public class CategoryServiceTest {
         assertEquals(ID, categoryDTO.getId());
         assertEquals(NAME, categoryDTO.getName());
     }
+
+    @Test(expected = ResourceNotFoundException.class)
+    public void getCategoryByNameNotFound() throws Exception {
+        //given
+        when(categoryRepository.findAll()).thenReturn(Arrays.asList(new Category()));
+
+        //when
+        categoryService.getCategoryByName(NAME);
+    }
 }
\ No newline at end of file
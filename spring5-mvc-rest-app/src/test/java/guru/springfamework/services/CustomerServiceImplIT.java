@@ -6,18 +6,24 @@ import guru.springfamework.domain.Customer;
 import guru.springfamework.repositories.CategoryRepository;
 import guru.springfamework.repositories.CustomerRepository;
 import guru.springframework.model.CustomerDTO;
+import guru.springframework.model.CustomerListDTO;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import javax.persistence.EntityManager;
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.not;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 
@@ -30,6 +36,15 @@ public class CustomerServiceImplIT {
     @Autowired
     CategoryRepository categoryRepository;
 
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
     CustomerService customerService;
 
     @Before
@@ -41,7 +56,8 @@ public class CustomerServiceImplIT {
         Bootstrap bootstrap = new Bootstrap(categoryRepository, customerRepository);
         bootstrap.run();
 
-        customerService = new CustomerServiceImpl(CustomerMapper.INSTANCE, customerRepository);
+        customerService = new CustomerServiceImpl(CustomerMapper.INSTANCE, customerRepository, entityManager,
+                new ChunkedWriter(transactionManager, 1000), eventPublisher);
     }
 
     @Test
@@ -59,7 +75,7 @@ public class CustomerServiceImplIT {
         customerDTO.setFirstname(updatedName);
 
 
-        customerService.patchCustomer(id, customerDTO);
+        customerService.patchCustomer(id, customerDTO, null);
 
         Customer updatedCustomer = customerRepository.findById(id).get();
 
@@ -83,7 +99,7 @@ public class CustomerServiceImplIT {
         CustomerDTO customerDTO = new CustomerDTO();
         customerDTO.setLastname(updatedName);
 
-        customerService.patchCustomer(id, customerDTO);
+        customerService.patchCustomer(id, customerDTO, null);
 
         Customer updatedCustomer = customerRepository.findById(id).get();
 
@@ -93,6 +109,63 @@ public class CustomerServiceImplIT {
         assertThat(originalLastName, not(equalTo(updatedCustomer.getLastName())));
     }
 
+    @Test
+    public void testSearchCustomersByLastNamePrefix() {
+        customerRepository.save(customer("Sam", "Axelrod"));
+        customerRepository.save(customer("Sam", "A_e"));
+
+        CustomerListDTO found = customerService.searchCustomers("Axe", null, true, null, 1);
+
+        assertEquals(1, found.getCustomers().size());
+        assertEquals("Axe", found.getCustomers().get(0).getLastname());
+        assertNotNull(found.getNextUrl());
+        assertThat(found.getNextUrl().contains("lastname=Axe&prefix=true&after="), equalTo(true));
+
+        CustomerListDTO next = customerService.searchCustomers("Axe", null, true,
+                Long.valueOf(found.getNextUrl().replaceAll(".*after=(\\d+).*", "$1")), 1);
+        assertEquals("Axelrod", next.getCustomers().get(0).getLastname());
+        assertNull(next.getNextUrl());
+    }
+
+    @Test
+    public void testSearchCustomersEscapesLikeWildcards() {
+        customerRepository.save(customer("Sam", "A_e"));
+
+        // "_" would match the "x" of Axe if it were not escaped
+        CustomerListDTO found = customerService.searchCustomers("A_", "Sam", true, null, null);
+
+        assertEquals(1, found.getCustomers().size());
+        assertEquals("A_e", found.getCustomers().get(0).getLastname());
+    }
+
+    @Test
+    public void testSearchCustomersByExactNames() {
+        CustomerListDTO found = customerService.searchCustomers("Weston", "Michele", false, null, null);
+        CustomerListDTO notFound = customerService.searchCustomers("West", null, false, null, null);
+
+        assertEquals(1, found.getCustomers().size());
+        assertEquals(0, notFound.getCustomers().size());
+    }
+
+    @Test(expected = ObjectOptimisticLockingFailureException.class)
+    public void testSaveCustomerAtStaleVersion() {
+        Customer customer = customerRepository.saveAndFlush(customer("Sam", "Axe"));
+
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstname("Samuel");
+        customerDTO.setLastname("Axe");
+
+        // answered with 412 Precondition Failed, see RestResponseEntityExceptionHandler
+        customerService.saveCustomerByDTO(customer.getId(), customerDTO, customer.getVersion() + 1);
+    }
+
+    private static Customer customer(String firstName, String lastName) {
+        Customer customer = new Customer();
+        customer.setFirstName(firstName);
+        customer.setLastName(lastName);
+        return customer;
+    }
+
     private Long getCustomerIdValue() {
         List<Customer> customers = customerRepository.findAll();
 
@@ -1,22 +1,43 @@
 package guru.springfamework.services;
 
 import guru.springfamework.api.v1.mapper.CustomerMapper;
+import guru.springfamework.api.v1.model.LinkedCustomerBulkItemResultDTO;
+import guru.springfamework.api.v1.model.LinkedCustomerDTO;
 import guru.springfamework.domain.Customer;
+import guru.springfamework.domain.CustomerChangedEvent;
 import guru.springfamework.repositories.CustomerRepository;
+import guru.springfamework.repositories.CustomerSummary;
+import guru.springframework.model.BulkItemStatus;
+import guru.springframework.model.CustomerBulkResultDTO;
 import guru.springframework.model.CustomerDTO;
+import guru.springframework.model.CustomerListDTO;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -25,6 +46,15 @@ public class CustomerServiceImplTest {
     @Mock
     CustomerRepository customerRepository;
 
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
     CustomerMapper customerMapper = CustomerMapper.INSTANCE;
 
     CustomerService customerService;
@@ -33,7 +63,8 @@ public class CustomerServiceImplTest {
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
 
-        customerService = new CustomerServiceImpl(customerMapper, customerRepository);
+        customerService = new CustomerServiceImpl(customerMapper, customerRepository, entityManager,
+                new ChunkedWriter(transactionManager, 2), eventPublisher);
     }
 
     @Test
@@ -44,16 +75,90 @@ public class CustomerServiceImplTest {
         customer.setLastName("Oliveira");
 
         Customer customer2 = new Customer();
+        customer2.setId(2L);
         customer2.setFirstName("Joe");
         customer2.setLastName("Doe");
 
-        when(customerRepository.findAll()).thenReturn(Arrays.asList(customer, customer2));
+        SpelAwareProxyProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+        when(customerRepository.findAllSummaries()).thenReturn(Arrays.asList(
+                projectionFactory.createProjection(CustomerSummary.class, customer),
+                projectionFactory.createProjection(CustomerSummary.class, customer2)));
 
         //when
         List<CustomerDTO> customerDTOS = customerService.getAllCustomers();
 
         //then
         assertEquals(2, customerDTOS.size());
+        assertEquals("Doe", customerDTOS.get(1).getLastname());
+        assertEquals(Long.valueOf(2L), ((LinkedCustomerDTO) customerDTOS.get(1)).getId());
+        verify(customerRepository, never()).findAll();
+    }
+
+    @Test
+    public void testGetCustomerPage() {
+        //given
+        Customer customer = new Customer();
+        customer.setId(3L);
+        customer.setFirstName("Calebe");
+
+        Customer customer2 = new Customer();
+        customer2.setId(4L);
+        customer2.setFirstName("Joe");
+
+        Customer customer3 = new Customer();
+        customer3.setId(5L);
+        customer3.setFirstName("Sam");
+
+        when(customerRepository.findByIdGreaterThanOrderByIdAsc(eq(2L), any()))
+                .thenReturn(Arrays.asList(customer, customer2, customer3));
+
+        //when
+        CustomerListDTO page = customerService.getCustomerPage(2L, 2);
+
+        //then
+        assertEquals(2, page.getCustomers().size());
+        assertEquals(Long.valueOf(4L), ((LinkedCustomerDTO) page.getCustomers().get(1)).getId());
+        assertEquals("/api/v1/customers/?after=4&limit=2", page.getNextUrl());
+    }
+
+    @Test
+    public void testGetCustomerLastPage() {
+        //given
+        Customer customer = new Customer();
+        customer.setId(3L);
+
+        when(customerRepository.findByIdGreaterThanOrderByIdAsc(eq(2L), any()))
+                .thenReturn(Arrays.asList(customer));
+
+        //when
+        CustomerListDTO page = customerService.getCustomerPage(2L, 2);
+
+        //then
+        assertEquals(1, page.getCustomers().size());
+        assertNull(page.getNextUrl());
+    }
+
+    @Test
+    public void testExportCustomers() {
+        //given
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setFirstName("Calebe");
+
+        Customer customer2 = new Customer();
+        customer2.setId(2L);
+        customer2.setFirstName("Joe");
+
+        when(customerRepository.streamAll()).thenReturn(Stream.of(customer, customer2));
+
+        //when
+        List<CustomerDTO> exported = new ArrayList<>();
+        customerService.exportCustomers(exported::add);
+
+        //then
+        assertEquals(2, exported.size());
+        assertEquals(Long.valueOf(2L), ((LinkedCustomerDTO) exported.get(1)).getId());
+        verify(entityManager, times(2)).detach(any(Customer.class));
     }
 
     @Test
@@ -99,25 +204,129 @@ public class CustomerServiceImplTest {
         customerDTO.setFirstname("Fred");
         customerDTO.setLastname("Flinstone");
 
-        Customer returnedCustomer = new Customer();
-        returnedCustomer.setFirstName(customerDTO.getFirstname());
-        returnedCustomer.setLastName(customerDTO.getLastname());
-
-        when(customerRepository.save(any())).thenReturn(returnedCustomer);
+        when(customerRepository.replace(2L, "Fred", "Flinstone", null)).thenReturn(1);
 
         //when
-        CustomerDTO savedDto = customerService.saveCustomerByDTO(2L, customerDTO);
+        CustomerDTO savedDto = customerService.saveCustomerByDTO(2L, customerDTO, null);
 
         //then
         assertEquals(savedDto.getFirstname(), "Fred");
+        assertEquals(Long.valueOf(2L), ((LinkedCustomerDTO) savedDto).getId());
+        verify(customerRepository, never()).save(any());
+        verify(customerRepository, never()).findById(anyLong());
+    }
+
+    @Test(expected = ObjectOptimisticLockingFailureException.class)
+    public void testSaveCustomerByDTOVersionConflict() {
+        //given
+        when(customerRepository.replace(2L, null, null, 2L)).thenReturn(0);
+        when(customerRepository.existsById(2L)).thenReturn(true);
+
+        //when
+        customerService.saveCustomerByDTO(2L, new CustomerDTO(), 2L);
+    }
+
+    @Test
+    public void testCreateNewCustomers() {
+        //given
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstname("Jim");
+
+        CustomerDTO badCustomerDTO = new CustomerDTO();
+        badCustomerDTO.setFirstname("Bad");
+
+        AtomicLong ids = new AtomicLong();
+        doAnswer(invocation -> {
+            Customer customer = invocation.getArgument(0);
+            if ("Bad".equals(customer.getFirstName())) {
+                throw new PersistenceException("rejected");
+            }
+            customer.setId(ids.incrementAndGet());
+            return null;
+        }).when(entityManager).persist(any(Customer.class));
+
+        //when
+        CustomerBulkResultDTO bulkResult = customerService.upsertCustomers(
+                Arrays.asList(customerDTO, badCustomerDTO, customerDTO).iterator());
+
+        //then
+        assertEquals(2, bulkResult.getCreated());
+        assertEquals(1, bulkResult.getFailed());
+        assertEquals(3, bulkResult.getResults().size());
+        assertEquals(BulkItemStatus.FAILED, bulkResult.getResults().get(1).getStatus());
+        assertEquals(1, bulkResult.getResults().get(1).getIndex());
+        assertEquals("rejected", bulkResult.getResults().get(1).getError());
+        assertEquals(2, bulkResult.getResults().get(2).getIndex());
+        assertEquals(BulkItemStatus.CREATED, bulkResult.getResults().get(2).getStatus());
+    }
+
+    @Test
+    public void testUpsertCustomersUpdatesAndSkipsUnreadableItems() {
+        //given
+        Customer existing = new Customer();
+        existing.setId(7L);
+        existing.setFirstName("Old");
+        when(customerRepository.findAllById(any())).thenReturn(Arrays.asList(existing));
+
+        CustomerDTO update = new CustomerDTO();
+        update.setFirstname("New");
+        update.setCustomerUrl("/api/v1/customers/7");
+
+        CustomerDTO created = new CustomerDTO();
+        created.setFirstname("Jim");
+        doAnswer(invocation -> {
+            invocation.<Customer>getArgument(0).setId(8L);
+            return null;
+        }).when(entityManager).persist(any(Customer.class));
+
+        Iterator<CustomerDTO> customerDTOS = new Iterator<CustomerDTO>() {
+            final Iterator<CustomerDTO> items = Arrays.asList(update, null, created).iterator();
+
+            @Override
+            public boolean hasNext() {
+                return items.hasNext();
+            }
+
+            @Override
+            public CustomerDTO next() {
+                CustomerDTO customerDTO = items.next();
+                if (customerDTO == null) {
+                    throw new IllegalArgumentException("malformed");
+                }
+                return customerDTO;
+            }
+        };
+
+        //when
+        CustomerBulkResultDTO bulkResult = customerService.upsertCustomers(customerDTOS);
+
+        //then
+        assertEquals(1, bulkResult.getUpdated());
+        assertEquals(1, bulkResult.getCreated());
+        assertEquals(1, bulkResult.getFailed());
+        assertEquals("New", existing.getFirstName());
+        assertEquals(BulkItemStatus.UPDATED, bulkResult.getResults().get(0).getStatus());
+        assertEquals(BulkItemStatus.FAILED, bulkResult.getResults().get(1).getStatus());
+        assertEquals(1, bulkResult.getResults().get(1).getIndex());
+        assertEquals("malformed", bulkResult.getResults().get(1).getError());
+        assertEquals(2, bulkResult.getResults().get(2).getIndex());
+        assertEquals(Long.valueOf(8L), ((LinkedCustomerBulkItemResultDTO) bulkResult.getResults().get(2)).getId());
     }
 
     @Test
     public void deleteCustomerById() throws Exception {
         Long id = 1L;
+        when(customerRepository.deleteByIds(Collections.singletonList(id))).thenReturn(1);
 
-        customerRepository.deleteById(id);
+        customerService.deleteCustomerById(id);
+
+        verify(customerRepository, times(1)).deleteByIds(Collections.singletonList(id));
+        verify(customerRepository, never()).deleteById(anyLong());
+        verify(eventPublisher, times(1)).publishEvent(any(CustomerChangedEvent.class));
+    }
 
-        verify(customerRepository, times(1)).deleteById(anyLong());
+    @Test(expected = ResourceNotFoundException.class)
+    public void deleteMissingCustomer() throws Exception {
+        customerService.deleteCustomerById(1L);
     }
 }
\ No newline at end of file
@@ -0,0 +1,93 @@
+package guru.springfamework.services;
+
+import guru.springfamework.api.v1.model.SearchHitDTO;
+import guru.springfamework.domain.Customer;
+import guru.springfamework.domain.CustomerChangedEvent;
+import guru.springfamework.domain.Vendor;
+import guru.springfamework.domain.VendorChangedEvent;
+import guru.springfamework.repositories.CustomerRepository;
+import guru.springfamework.repositories.VendorRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+public class FullTextIndexTest {
+    @Mock
+    CustomerRepository customerRepository;
+
+    @Mock
+    VendorRepository vendorRepository;
+
+    FullTextIndex fullTextIndex;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        when(customerRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any())).thenReturn(Arrays.asList(
+                new Customer(1L, 0L, "Michele", "Weston"),
+                new Customer(2L, 0L, "Sam", "Axe")));
+        when(vendorRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any())).thenReturn(Collections.singletonList(
+                new Vendor(1L, 0L, "Western Tasty Fruits Ltd.")));
+
+        fullTextIndex = new FullTextIndex(customerRepository, vendorRepository, "", true);
+        fullTextIndex.rebuild();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        fullTextIndex.destroy();
+    }
+
+    @Test
+    public void testSearchToleratesTypos() {
+        List<SearchHitDTO> hits = fullTextIndex.search("Micheel Westn", null, 10);
+
+        assertEquals(1, hits.size());
+        assertEquals("Michele Weston", hits.get(0).getName());
+        assertEquals("/api/v1/customers/1", hits.get(0).getUrl());
+    }
+
+    @Test
+    public void testSearchRanksExactMatchesFirst() {
+        List<SearchHitDTO> hits = fullTextIndex.search("west", null, 10);
+
+        assertEquals(2, hits.size());
+        assertTrue(hits.get(0).getScore() >= hits.get(1).getScore());
+    }
+
+    @Test
+    public void testSearchByType() {
+        List<SearchHitDTO> hits = fullTextIndex.search("west", FullTextIndex.VENDOR, 10);
+
+        assertEquals(1, hits.size());
+        assertEquals("/api/v1/vendors/1", hits.get(0).getUrl());
+    }
+
+    @Test
+    public void testChangesAreApplied() {
+        fullTextIndex.onCustomerChanged(new CustomerChangedEvent(2L, "Sam", "Axelrod", false));
+        fullTextIndex.onVendorChanged(new VendorChangedEvent(1L, null, true));
+        fullTextIndex.refresh();
+
+        assertEquals("Sam Axelrod", fullTextIndex.search("axelrod", null, 10).get(0).getName());
+        assertEquals(0, fullTextIndex.search("tasty", null, 10).size());
+    }
+
+    @Test
+    public void testBlankQueryFindsNothing() {
+        assertEquals(0, fullTextIndex.search("  ", null, 10).size());
+    }
+}
@@ -0,0 +1,94 @@
+package guru.springfamework.services;
+
+import guru.springfamework.tracing.StatementCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JpaExecutorTest {
+    JpaExecutor jpaExecutor;
+
+    StatementCounter statementCounter = new StatementCounter();
+
+    CountDownLatch release = new CountDownLatch(1);
+
+    @Before
+    public void setUp() throws Exception {
+        jpaExecutor = new JpaExecutor(new SimpleMeterRegistry(),
+                new StaticListableBeanFactory(Collections.singletonMap("statementCounter", statementCounter))
+                        .getBeanProvider(StatementCounter.class),
+                1, 1, false);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        release.countDown();
+        jpaExecutor.destroy();
+    }
+
+    @Test
+    public void rejectsOnceTheQueueIsFull() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        jpaExecutor.run(() -> {
+            running.countDown();
+            awaitRelease();
+        });
+        running.await();
+        CompletableFuture<Void> queued = jpaExecutor.run(this::awaitRelease);
+
+        try {
+            jpaExecutor.run(this::awaitRelease);
+            fail("expected the third call to be rejected");
+        } catch (RejectedExecutionException expected) {
+        }
+
+        release.countDown();
+        queued.get();
+    }
+
+    @Test
+    public void cacheHitCompletesWithoutQueueing() throws Exception {
+        Cache cache = new ConcurrentMapCache("vendors");
+        cache.put(1L, "cached");
+
+        CompletableFuture<String> result = jpaExecutor.cachedOrSupply(cache, 1L, String.class, () -> "loaded");
+
+        assertTrue(result.isDone());
+        assertThat(result.get(), is("cached"));
+        assertThat(jpaExecutor.cachedOrSupply(cache, 2L, String.class, () -> "loaded").get(), is("loaded"));
+    }
+
+    @Test
+    public void countsStatementsWithTheThreadThatQueuedThem() throws Exception {
+        statementCounter.start();
+
+        jpaExecutor.run(() -> statementCounter.afterQuery(new ExecutionInfo(),
+                Collections.singletonList(new QueryInfo("select 1")))).get();
+
+        assertThat(statementCounter.stop().getStatements(), is(1));
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package guru.springfamework.services;
+
+import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.config.CacheConfig;
+import guru.springfamework.domain.Vendor;
+import guru.springfamework.repositories.VendorRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class VendorServiceCacheIT {
+    private static final Long ID = 1L;
+
+    @MockBean
+    VendorRepository vendorRepository;
+
+    @Autowired
+    VendorService vendorService;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Before
+    public void setUp() throws Exception {
+        cacheManager.getCache(CacheConfig.VENDOR_CACHE).clear();
+    }
+
+    @Test
+    public void getVendorByIdIsReadThrough() throws Exception {
+        given(vendorRepository.findById(ID)).willReturn(Optional.of(getVendor("Vendor 1")));
+
+        vendorService.getVendorById(ID);
+        VendorDTO vendorDTO = vendorService.getVendorById(ID);
+
+        then(vendorRepository).should(times(1)).findById(ID);
+        assertThat(vendorDTO.getName(), is("Vendor 1"));
+    }
+
+    @Test
+    public void saveWritesThroughAndDeleteEvicts() throws Exception {
+        given(vendorRepository.replace(ID, "Updated", null)).willReturn(1);
+        given(vendorRepository.findById(ID)).willReturn(Optional.of(getVendor("Reloaded")));
+
+        vendorService.saveVendorByDto(ID, new VendorDTO("Updated", null), null);
+        assertThat(vendorService.getVendorById(ID).getName(), is("Updated"));
+        then(vendorRepository).should(times(0)).findById(ID);
+
+        given(vendorRepository.deleteByIds(Collections.singletonList(ID))).willReturn(1);
+        vendorService.deleteVendorById(ID);
+        assertThat(vendorService.getVendorById(ID).getName(), is("Reloaded"));
+        then(vendorRepository).should(times(1)).findById(ID);
+    }
+
+    private Vendor getVendor(String name) {
+        Vendor vendor = new Vendor();
+        vendor.setId(ID);
+        vendor.setName(name);
+        return vendor;
+    }
+}
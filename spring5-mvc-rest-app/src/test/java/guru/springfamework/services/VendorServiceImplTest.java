@@ -1,27 +1,44 @@
 package guru.springfamework.services;
 
 import guru.springfamework.api.v1.mapper.VendorMapper;
+import guru.springfamework.api.v1.model.BulkDeleteResultDTO;
+import guru.springfamework.api.v1.model.VendorBatchItemResultDTO;
+import guru.springfamework.api.v1.model.VendorBatchResultDTO;
 import guru.springfamework.api.v1.model.VendorDTO;
 import guru.springfamework.api.v1.model.VendorListDTO;
+import guru.springfamework.controllers.v1.VendorController;
 import guru.springfamework.domain.Vendor;
+import guru.springfamework.domain.VendorChangedEvent;
 import guru.springfamework.repositories.VendorRepository;
+import guru.springfamework.repositories.VendorSummary;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 
 public class VendorServiceImplTest {
@@ -33,13 +50,23 @@ public class VendorServiceImplTest {
     @Mock
     VendorRepository vendorRepository;
 
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
     VendorService vendorService;
 
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
 
-        vendorService = new VendorServiceImpl(VendorMapper.INSTANCE, vendorRepository);
+        vendorService = new VendorServiceImpl(VendorMapper.INSTANCE, vendorRepository, entityManager,
+                new ChunkedWriter(transactionManager, 10), eventPublisher);
     }
 
     @Test
@@ -75,18 +102,45 @@ public class VendorServiceImplTest {
         then(vendorRepository).should(times(1)).findById(anyLong());
     }
 
+    @Test(expected = ResourceNotFoundException.class)
+    public void getVendorVersionNotFound() throws Exception {
+        //given
+        given(vendorRepository.findVersionById(anyLong())).willReturn(null);
+
+        //when
+        vendorService.getVendorVersion(1L);
+    }
+
+    @Test(expected = ResourceNotFoundException.class)
+    public void saveVendorByDTONotFound() throws Exception {
+        //given
+        given(vendorRepository.replace(ID_1, null, null)).willReturn(0);
+        given(vendorRepository.existsById(ID_1)).willReturn(false);
+
+        //when
+        vendorService.saveVendorByDto(ID_1, new VendorDTO(), null);
+
+        //then
+        then(vendorRepository).should(never()).save(any(Vendor.class));
+    }
+
     @Test
     public void getAllVendors() {
         //given
-        List<Vendor> vendors = Arrays.asList(getVendor1(), getVendor2());
-        given(vendorRepository.findAll()).willReturn(vendors);
+        SpelAwareProxyProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+        List<VendorSummary> vendors = Arrays.asList(
+                projectionFactory.createProjection(VendorSummary.class, getVendor1()),
+                projectionFactory.createProjection(VendorSummary.class, getVendor2()));
+        given(vendorRepository.findAllSummaries()).willReturn(vendors);
 
         //when
         VendorListDTO vendorListDTO = vendorService.getAllVendors();
 
         //then
-        then(vendorRepository).should(times(1)).findAll();
+        then(vendorRepository).should(times(1)).findAllSummaries();
+        then(vendorRepository).should(never()).findAll();
         assertThat(vendorListDTO.getVendors().size(), is(equalTo(2)));
+        assertThat(vendorListDTO.getVendors().get(1).getId(), is(equalTo(ID_2)));
     }
 
     @Test
@@ -105,7 +159,7 @@ public class VendorServiceImplTest {
         //then
         // 'should' defaults to times=1
         then(vendorRepository).should().save(any(Vendor.class));
-        assertThat(savedVendorDTO.getVendorUrl(), containsString("1"));
+        assertThat(savedVendorDTO.getId(), is(equalTo(ID_1)));
     }
 
     @Test
@@ -114,17 +168,16 @@ public class VendorServiceImplTest {
         VendorDTO vendorDTO = new VendorDTO();
         vendorDTO.setName(NAME_1);
 
-        Vendor vendor = getVendor1();
-
-        given(vendorRepository.save(any(Vendor.class))).willReturn(vendor);
+        given(vendorRepository.replace(ID_1, NAME_1, null)).willReturn(1);
 
         //when
-        VendorDTO savedVendorDTO = vendorService.saveVendorByDto(ID_1, vendorDTO);
+        VendorDTO savedVendorDTO = vendorService.saveVendorByDto(ID_1, vendorDTO, null);
 
         //then
-        // 'should' defaults to times=1
-        then(vendorRepository).should().save(any(Vendor.class));
-        assertThat(savedVendorDTO.getVendorUrl(), containsString("1"));
+        // one UPDATE through the repository, no merge
+        then(vendorRepository).should(never()).save(any(Vendor.class));
+        then(eventPublisher).should().publishEvent(any(VendorChangedEvent.class));
+        assertThat(savedVendorDTO.getId(), is(equalTo(ID_1)));
     }
 
     @Test
@@ -133,28 +186,119 @@ public class VendorServiceImplTest {
         VendorDTO vendorDTO = new VendorDTO();
         vendorDTO.setName(NAME_1);
 
-        Vendor vendor = getVendor1();
+        given(vendorRepository.patch(ID_1, NAME_1, null)).willReturn(1);
 
-        given(vendorRepository.save(any(Vendor.class))).willReturn(vendor);
-        given(vendorRepository.findById(anyLong())).willReturn(Optional.of(vendor));
+        //when
+        VendorDTO savedVendorDTO = vendorService.patchVendor(ID_1, vendorDTO, null);
+
+        //then
+        // one UPDATE, no load-modify-save
+        then(vendorRepository).should(never()).findById(anyLong());
+        then(vendorRepository).should(never()).save(any(Vendor.class));
+        then(eventPublisher).should().publishEvent(any(VendorChangedEvent.class));
+        assertThat(savedVendorDTO.getName(), is(equalTo(NAME_1)));
+        assertThat(savedVendorDTO.getId(), is(equalTo(ID_1)));
+    }
+
+    @Test(expected = ObjectOptimisticLockingFailureException.class)
+    public void patchVendorVersionConflict() {
+        //given
+        given(vendorRepository.patch(ID_1, NAME_2, 4L)).willReturn(0);
+        given(vendorRepository.existsById(ID_1)).willReturn(true);
 
         //when
-        VendorDTO savedVendorDTO = vendorService.patchVendor(ID_1, vendorDTO);
+        vendorService.patchVendor(ID_1, new VendorDTO(NAME_2, null), 4L);
+    }
+
+    @Test
+    public void upsertVendors() {
+        //given
+        given(vendorRepository.findAllById(any())).willAnswer(invocation -> {
+            List<Vendor> found = new ArrayList<>();
+            Iterable<Long> ids = invocation.getArgument(0);
+            ids.forEach(id -> {
+                if (ID_1.equals(id)) {
+                    found.add(getVendor1());
+                }
+            });
+            return found;
+        });
+        given(vendorRepository.saveAll(anyList())).willAnswer(invocation -> {
+            List<Vendor> vendors = invocation.getArgument(0);
+            vendors.stream().filter(vendor -> vendor.getId() == null).forEach(vendor -> vendor.setId(ID_2));
+            return vendors;
+        });
+
+        List<VendorDTO> vendorDTOS = Arrays.asList(
+                new VendorDTO("Renamed", VendorController.VENDOR_API_V1_URL + "/" + ID_1),
+                new VendorDTO(NAME_2, null),
+                new VendorDTO("Missing", VendorController.VENDOR_API_V1_URL + "/99"));
+
+        //when
+        VendorBatchResultDTO batchResult = vendorService.upsertVendors(vendorDTOS.iterator());
 
         //then
-        // 'should' defaults to times=1
-        then(vendorRepository).should().save(any(Vendor.class));
-        then(vendorRepository).should(times(1)).findById(anyLong());
-        assertThat(savedVendorDTO.getVendorUrl(), containsString("1"));
+        assertEquals(1, batchResult.getCreated());
+        assertEquals(1, batchResult.getUpdated());
+        assertEquals(1, batchResult.getFailed());
+
+        VendorBatchItemResultDTO updated = batchResult.getResults().get(0);
+        assertEquals(VendorBatchItemResultDTO.Status.UPDATED, updated.getStatus());
+        assertEquals(ID_1, updated.getId());
+
+        VendorBatchItemResultDTO created = batchResult.getResults().get(1);
+        assertEquals(VendorBatchItemResultDTO.Status.CREATED, created.getStatus());
+        assertEquals(ID_2, created.getId());
+
+        VendorBatchItemResultDTO failed = batchResult.getResults().get(2);
+        assertEquals(2, failed.getIndex());
+        assertEquals(VendorBatchItemResultDTO.Status.FAILED, failed.getStatus());
+        assertThat(failed.getError(), containsString("/99"));
     }
 
     @Test
     public void deleteVendorById() {
+        //given
+        given(vendorRepository.deleteByIds(Collections.singletonList(1L))).willReturn(1);
+
         //when
         vendorService.deleteVendorById(1L);
 
         //then
-        then(vendorRepository).should().deleteById(anyLong());
+        then(vendorRepository).should().deleteByIds(Collections.singletonList(1L));
+        then(vendorRepository).should(never()).deleteById(anyLong());
+        then(eventPublisher).should().publishEvent(any(VendorChangedEvent.class));
+    }
+
+    @Test
+    public void deleteVendorsById() {
+        //given
+        given(vendorRepository.findExistingIds(Arrays.asList(ID_1, ID_2))).willReturn(Collections.singletonList(ID_1));
+
+        //when
+        BulkDeleteResultDTO result = vendorService.deleteVendorsById(Arrays.asList(ID_1, null, ID_2, ID_1));
+
+        //then
+        assertThat(result.getRequested(), is(equalTo(2)));
+        assertThat(result.getDeleted(), is(equalTo(1)));
+        then(vendorRepository).should().deleteByIds(Collections.singletonList(ID_1));
+        then(eventPublisher).should(times(1)).publishEvent(any(VendorChangedEvent.class));
+    }
+
+    @Test
+    public void deleteVendorsByIdOneStatementPerThousandIds() {
+        //given
+        List<Long> ids = LongStream.rangeClosed(1, 2500).boxed().collect(Collectors.toList());
+        given(vendorRepository.findExistingIds(anyList()))
+                .willAnswer(invocation -> invocation.<List<Long>>getArgument(0));
+
+        //when
+        BulkDeleteResultDTO result = vendorService.deleteVendorsById(ids);
+
+        //then
+        then(vendorRepository).should(times(3)).findExistingIds(anyList());
+        then(vendorRepository).should(times(3)).deleteByIds(anyList());
+        assertThat(result.getDeleted(), is(equalTo(2500)));
     }
 
     private Vendor getVendor1() {
@@ -0,0 +1,59 @@
+package guru.springfamework.tracing;
+
+import guru.springfamework.controllers.v1.VendorController;
+import guru.springfamework.domain.Vendor;
+import guru.springfamework.repositories.VendorRepository;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"async.enabled=true", "sql.budget.fail=true", "sql.budget.max-statements=1"})
+@AutoConfigureMockMvc
+public class AsyncStatementBudgetIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    VendorRepository vendorRepository;
+
+    @Test
+    public void asyncEndpointWithinBudgetPasses() throws Exception {
+        MvcResult result = mockMvc.perform(get(VendorController.VENDOR_API_V1_URL).accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+    }
+
+    @Test(expected = StatementBudgetExceededException.class)
+    public void statementsRunOnTheJpaExecutorCountTowardsTheBudget() throws Exception {
+        Vendor vendor = new Vendor();
+        vendor.setName("Budgeted Fruits");
+        Long id = vendorRepository.save(vendor).getId();
+
+        try {
+            // the version and the vendor are two selects, both run on the executor
+            MvcResult result = mockMvc.perform(get(VendorController.VENDOR_API_V1_URL + "/" + id)
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result));
+        } finally {
+            vendorRepository.deleteById(id);
+        }
+    }
+}
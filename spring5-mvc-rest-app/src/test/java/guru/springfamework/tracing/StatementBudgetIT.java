@@ -0,0 +1,81 @@
+package guru.springfamework.tracing;
+
+import guru.springfamework.controllers.v1.CategoryController;
+import guru.springfamework.controllers.v1.CustomerController;
+import guru.springfamework.controllers.v1.VendorController;
+import guru.springfamework.repositories.CategoryRepository;
+import guru.springfamework.repositories.CustomerRepository;
+import guru.springfamework.repositories.VendorRepository;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"sql.budget.fail=true", "sql.budget.max-statements=3", "sql.budget.max-repeats=1"})
+@AutoConfigureMockMvc
+public class StatementBudgetIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    StatementCounter statementCounter;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    VendorRepository vendorRepository;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Test
+    public void readEndpointsStayWithinBudget() throws Exception {
+        // an endpoint over budget throws StatementBudgetExceededException out of perform
+        mockMvc.perform(get(CustomerController.API_V1_CUSTOMERS).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(CustomerController.API_V1_CUSTOMERS + "?limit=2").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(VendorController.VENDOR_API_V1_URL).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(CategoryController.API_V1_CATEGORIES).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(CategoryController.API_V1_CATEGORIES + "/Fruits").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void countsStatementsOfEveryRepository() throws Exception {
+        statementCounter.start();
+        customerRepository.findAll();
+        vendorRepository.findAll();
+        categoryRepository.findByName("Fruits");
+        StatementStats stats = statementCounter.stop();
+
+        assertThat(stats.getStatements(), is(3));
+        assertThat(stats.getCountsBySql().size(), is(3));
+    }
+
+    @Test(expected = StatementBudgetExceededException.class)
+    public void repeatedStatementIsReportedAsNPlusOne() throws Exception {
+        statementCounter.start();
+        for (String name : new String[]{"Fruits", "Dried", "Fresh"}) {
+            categoryRepository.findByName(name);
+        }
+        StatementStats stats = statementCounter.stop();
+
+        assertThat(stats.getStatements(), is(3));
+        new StatementBudget(0, 0, 2).verify(stats);
+    }
+}
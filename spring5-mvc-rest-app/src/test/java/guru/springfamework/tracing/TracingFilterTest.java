@@ -0,0 +1,80 @@
+package guru.springfamework.tracing;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class TracingFilterTest {
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String PARENT_ID = "00f067aa0ba902b7";
+
+    InMemorySpanExporter exporter;
+    Tracer tracer;
+    TracingFilter filter;
+
+    @Before
+    public void setUp() throws Exception {
+        exporter = new InMemorySpanExporter(10);
+        tracer = new Tracer(0.0, exporter);
+        filter = new TracingFilter(tracer);
+    }
+
+    @Test
+    public void continuesSampledTraceFromTraceparent() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/vendors/1");
+        request.addHeader(TracingFilter.TRACEPARENT, "00-" + TRACE_ID + "-" + PARENT_ID + "-01");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                Span span = tracer.startSpan("service", "VendorServiceImpl.getVendorById");
+                tracer.finish(span);
+            }
+        }));
+
+        List<List<Span>> traces = exporter.getTraces();
+        assertEquals(1, traces.size());
+
+        List<Span> spans = traces.get(0);
+        assertEquals(2, spans.size());
+        Span root = spans.get(0);
+        assertEquals(TRACE_ID, root.getTraceId());
+        assertEquals(PARENT_ID, root.getParentId());
+        assertEquals("GET /api/v1/vendors/1", root.getName());
+        assertEquals(200, root.getTags().get("status"));
+        assertEquals(root.getSpanId(), spans.get(1).getParentId());
+        assertTrue(spans.get(1).isEnded());
+
+        assertEquals("00-" + TRACE_ID + "-" + root.getSpanId() + "-01", response.getHeader(TracingFilter.TRACEPARENT));
+    }
+
+    @Test
+    public void unsampledRequestsRecordNothing() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/vendors/1"), response, new MockFilterChain(
+                new HttpServlet() {
+                    @Override
+                    protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                        assertNull(tracer.startSpan("service", "VendorServiceImpl.getVendorById"));
+                    }
+                }));
+
+        assertTrue(exporter.getTraces().isEmpty());
+        assertThat(response.getHeader(TracingFilter.TRACEPARENT), startsWith("00-"));
+    }
+}
@@ -0,0 +1,90 @@
+package guru.springfamework.benchmarks;
+
+import guru.springfamework.api.v1.mapper.CategoryMapper;
+import guru.springfamework.api.v1.mapper.CustomerMapper;
+import guru.springfamework.api.v1.mapper.VendorMapper;
+import guru.springfamework.api.v1.model.CategoryDTO;
+import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.domain.Category;
+import guru.springfamework.domain.Customer;
+import guru.springfamework.domain.Vendor;
+import guru.springframework.model.CustomerDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping and back, one object per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+    private Customer customer;
+    private CustomerDTO customerDTO;
+    private Vendor vendor;
+    private VendorDTO vendorDTO;
+    private Category category;
+
+    @Setup
+    public void setUp() {
+        customer = new Customer();
+        customer.setId(1L);
+        customer.setVersion(0L);
+        customer.setFirstName("Michele");
+        customer.setLastName("Weston");
+
+        customerDTO = new CustomerDTO();
+        customerDTO.setFirstname("Michele");
+        customerDTO.setLastname("Weston");
+        customerDTO.setCustomerUrl("/api/v1/customers/1");
+
+        vendor = new Vendor();
+        vendor.setId(1L);
+        vendor.setVersion(0L);
+        vendor.setName("Western Tasty Fruits Ltd.");
+
+        vendorDTO = new VendorDTO("Western Tasty Fruits Ltd.", "/api/v1/vendors/1");
+
+        category = new Category();
+        category.setId(1L);
+        category.setName("Fruits");
+    }
+
+    @Benchmark
+    public CustomerDTO customerToCustomerDTO() {
+        return CustomerMapper.INSTANCE.customerToCustomerDTO(customer);
+    }
+
+    @Benchmark
+    public Customer customerDtoToCustomer() {
+        return CustomerMapper.INSTANCE.customerDtoToCustomer(customerDTO);
+    }
+
+    @Benchmark
+    public VendorDTO vendorToVendorDTO() {
+        return VendorMapper.INSTANCE.vendorToVendorDTO(vendor);
+    }
+
+    @Benchmark
+    public Vendor vendorDtoToVendor() {
+        return VendorMapper.INSTANCE.vendorDtoToVendor(vendorDTO);
+    }
+
+    @Benchmark
+    public CategoryDTO categoryToCategoryDTO() {
+        return CategoryMapper.INSTANCE.categoryToCategoryDTO(category);
+    }
+}
@@ -0,0 +1,41 @@
+package guru.springfamework.benchmarks;
+
+import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.services.CustomerService;
+import guru.springfamework.services.VendorService;
+import guru.springframework.model.CustomerDTO;
+import org.springframework.context.ApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills the application's database with {@code rows} customers and vendors through the bulk service calls.
+ */
+public final class SeedData {
+
+    private SeedData() {
+    }
+
+    public static void seed(ApplicationContext context, int rows) {
+        List<CustomerDTO> customerDTOS = new ArrayList<>(rows);
+        List<VendorDTO> vendorDTOS = new ArrayList<>(rows);
+        for (int i = 1; i <= rows; i++) {
+            CustomerDTO customerDTO = new CustomerDTO();
+            customerDTO.setFirstname("Firstname " + i);
+            customerDTO.setLastname("Lastname " + i);
+            customerDTOS.add(customerDTO);
+
+            vendorDTOS.add(new VendorDTO("Vendor " + i, null));
+        }
+        context.getBean(CustomerService.class).upsertCustomers(customerDTOS.iterator());
+        context.getBean(VendorService.class).upsertVendors(vendorDTOS.iterator());
+    }
+
+    /**
+     * The id at the end of a resource url such as /api/v1/customers/42.
+     */
+    public static long idOf(String url) {
+        return Long.parseLong(url.substring(url.lastIndexOf('/') + 1));
+    }
+}
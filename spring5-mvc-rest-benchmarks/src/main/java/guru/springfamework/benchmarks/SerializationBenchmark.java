@@ -0,0 +1,91 @@
+package guru.springfamework.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.api.v1.model.VendorListDTO;
+import guru.springframework.model.CustomerDTO;
+import guru.springframework.model.CustomerListDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing and reading the list DTOs with the same Jackson setup Spring MVC uses for JSON and XML.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+    @Param({"json", "xml"})
+    public String format;
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private CustomerListDTO customerListDTO;
+    private VendorListDTO vendorListDTO;
+    private byte[] customerListBytes;
+    private byte[] vendorListBytes;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = "xml".equals(format)
+                ? Jackson2ObjectMapperBuilder.xml().build()
+                : Jackson2ObjectMapperBuilder.json().build();
+
+        customerListDTO = new CustomerListDTO();
+        List<VendorDTO> vendorDTOS = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            CustomerDTO customerDTO = new CustomerDTO();
+            customerDTO.setFirstname("Firstname " + i);
+            customerDTO.setLastname("Lastname " + i);
+            customerDTO.setCustomerUrl("/api/v1/customers/" + i);
+            customerListDTO.getCustomers().add(customerDTO);
+
+            vendorDTOS.add(new VendorDTO("Vendor " + i, "/api/v1/vendors/" + i));
+        }
+        vendorListDTO = new VendorListDTO(vendorDTOS);
+
+        customerListBytes = objectMapper.writeValueAsBytes(customerListDTO);
+        vendorListBytes = objectMapper.writeValueAsBytes(vendorListDTO);
+    }
+
+    @Benchmark
+    public byte[] writeCustomerList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(customerListDTO);
+    }
+
+    @Benchmark
+    public byte[] writeVendorList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(vendorListDTO);
+    }
+
+    @Benchmark
+    public CustomerListDTO readCustomerList() throws IOException {
+        return objectMapper.readValue(customerListBytes, CustomerListDTO.class);
+    }
+
+    @Benchmark
+    public VendorListDTO readVendorList() throws IOException {
+        return objectMapper.readValue(vendorListBytes, VendorListDTO.class);
+    }
+}
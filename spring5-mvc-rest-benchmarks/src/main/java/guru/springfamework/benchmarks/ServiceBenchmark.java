@@ -0,0 +1,122 @@
+package guru.springfamework.benchmarks;
+
+import guru.springfamework.Spring5MvcRestApplication;
+import guru.springfamework.api.v1.model.CategoryDTO;
+import guru.springfamework.api.v1.model.CategoryListDTO;
+import guru.springfamework.api.v1.model.LinkedCustomerDTO;
+import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.api.v1.model.VendorListDTO;
+import guru.springfamework.services.CategoryService;
+import guru.springfamework.services.CustomerService;
+import guru.springfamework.services.VendorService;
+import guru.springframework.model.CustomerDTO;
+import guru.springframework.model.CustomerListDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The *ServiceImpl read paths against the application's in-memory H2, with caching switched off so every
+ * call reaches the database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceBenchmark {
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"1000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private CustomerService customerService;
+    private VendorService vendorService;
+    private CategoryService categoryService;
+    private long customerId;
+    private long vendorId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Spring5MvcRestApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.cache.type=none", "spring.jpa.show-sql=false", "logging.level.root=WARN")
+                .run();
+
+        customerService = context.getBean(CustomerService.class);
+        vendorService = context.getBean(VendorService.class);
+        categoryService = context.getBean(CategoryService.class);
+
+        SeedData.seed(context, rows);
+
+        customerId = ((LinkedCustomerDTO) customerService.getAllCustomers().get(rows / 2)).getId();
+        vendorId = vendorService.getAllVendors().getVendors().get(rows / 2).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<CustomerDTO> getAllCustomers() {
+        return customerService.getAllCustomers();
+    }
+
+    @Benchmark
+    public CustomerListDTO getCustomerPage() {
+        return customerService.getCustomerPage(customerId, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CustomerDTO getCustomerById() {
+        return customerService.getCustomerById(customerId);
+    }
+
+    @Benchmark
+    public VendorListDTO getAllVendors() {
+        return vendorService.getAllVendors();
+    }
+
+    @Benchmark
+    public VendorListDTO getVendorPage() {
+        return vendorService.getVendorPage(vendorId, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public VendorDTO getVendorById() {
+        return vendorService.getVendorById(vendorId);
+    }
+
+    @Benchmark
+    public List<CategoryDTO> getAllCategories() {
+        return categoryService.getAllCategories();
+    }
+
+    @Benchmark
+    public CategoryListDTO getCategoryPage() {
+        return categoryService.getCategoryPage(null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CategoryDTO getCategoryByName() {
+        return categoryService.getCategoryByName("Fruits");
+    }
+}
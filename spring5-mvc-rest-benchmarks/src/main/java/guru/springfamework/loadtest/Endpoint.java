@@ -0,0 +1,50 @@
+package guru.springfamework.loadtest;
+
+import org.springframework.http.HttpMethod;
+
+import java.util.function.Supplier;
+
+/**
+ * One request shape to drive; the path and body are produced per request so writes can spread over rows.
+ */
+final class Endpoint {
+    private final String name;
+    private final HttpMethod method;
+    private final Supplier<String> path;
+    private final Supplier<String> body;
+
+    private Endpoint(String name, HttpMethod method, Supplier<String> path, Supplier<String> body) {
+        this.name = name;
+        this.method = method;
+        this.path = path;
+        this.body = body;
+    }
+
+    static Endpoint get(String name, String path) {
+        return new Endpoint(name, HttpMethod.GET, () -> path, () -> null);
+    }
+
+    static Endpoint get(String name, Supplier<String> path) {
+        return new Endpoint(name, HttpMethod.GET, path, () -> null);
+    }
+
+    static Endpoint write(String name, HttpMethod method, Supplier<String> path, Supplier<String> body) {
+        return new Endpoint(name, method, path, body);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    HttpMethod getMethod() {
+        return method;
+    }
+
+    String nextPath() {
+        return path.get();
+    }
+
+    String nextBody() {
+        return body.get();
+    }
+}
@@ -0,0 +1,76 @@
+package guru.springfamework.loadtest;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import org.HdrHistogram.Histogram;
+
+/**
+ * One line of the report: an endpoint at one concurrency level, latencies in microseconds.
+ */
+@JsonPropertyOrder({"endpoint", "concurrency", "requests", "errors", "throughput", "p50", "p99", "p999", "max"})
+public class EndpointResult {
+    private final String endpoint;
+    private final int concurrency;
+    private final long requests;
+    private final long errors;
+    private final double throughput;
+    private final double p50;
+    private final double p99;
+    private final double p999;
+    private final double max;
+
+    EndpointResult(String endpoint, int concurrency, Histogram latencies, long errors, double seconds) {
+        this.endpoint = endpoint;
+        this.concurrency = concurrency;
+        this.requests = latencies.getTotalCount();
+        this.errors = errors;
+        this.throughput = round(requests / seconds);
+        this.p50 = micros(latencies.getValueAtPercentile(50));
+        this.p99 = micros(latencies.getValueAtPercentile(99));
+        this.p999 = micros(latencies.getValueAtPercentile(99.9));
+        this.max = micros(latencies.getMaxValue());
+    }
+
+    private static double micros(long nanos) {
+        return round(nanos / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public double getThroughput() {
+        return throughput;
+    }
+
+    public double getP50() {
+        return p50;
+    }
+
+    public double getP99() {
+        return p99;
+    }
+
+    public double getP999() {
+        return p999;
+    }
+
+    public double getMax() {
+        return max;
+    }
+}
@@ -0,0 +1,268 @@
+package guru.springfamework.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import guru.springfamework.Spring5MvcRestApplication;
+import guru.springfamework.benchmarks.SeedData;
+import guru.springfamework.controllers.v1.CategoryController;
+import guru.springfamework.controllers.v1.CustomerController;
+import guru.springfamework.controllers.v1.VendorController;
+import guru.springfamework.services.CustomerService;
+import guru.springfamework.services.VendorService;
+import org.HdrHistogram.Histogram;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Starts the application on a random port against a seeded H2, then drives every v1 endpoint in turn at
+ * each configured concurrency level. Each worker sends its next request as soon as the previous one
+ * answers (a closed loop), and every latency goes into an HdrHistogram.
+ * <p>
+ * Arguments are {@code key=value} pairs: {@code concurrency=1,8,32 warmup=10 duration=30 rows=1000
+ * out=loadtest async=false threads=platform}; {@code async=true} runs against the async controllers and
+ * {@code threads=virtual} starts the application with the "virtual" profile, on virtual threads. The output
+ * directory receives report.json, with one stable line per endpoint and concurrency so two builds can be
+ * diffed, and a .hgrm percentile distribution per line.
+ */
+public class LoadTestRunner {
+    private final int[] concurrencyLevels;
+    private final long warmupSeconds;
+    private final long durationSeconds;
+    private final int rows;
+    private final File outputDirectory;
+    private final boolean async;
+    private final String threads;
+
+    private RestTemplate restTemplate;
+    private String baseUrl;
+
+    LoadTestRunner(Map<String, String> options) {
+        this.concurrencyLevels = Arrays.stream(options.getOrDefault("concurrency", "1,8,32").split(","))
+                .mapToInt(level -> Integer.parseInt(level.trim()))
+                .toArray();
+        this.warmupSeconds = Long.parseLong(options.getOrDefault("warmup", "10"));
+        this.durationSeconds = Long.parseLong(options.getOrDefault("duration", "30"));
+        this.rows = Integer.parseInt(options.getOrDefault("rows", "1000"));
+        this.outputDirectory = new File(options.getOrDefault("out", "loadtest"));
+        this.async = Boolean.parseBoolean(options.getOrDefault("async", "false"));
+        this.threads = options.getOrDefault("threads", "platform");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            options.put(pair[0], pair[1]);
+        }
+
+        new LoadTestRunner(options).run();
+    }
+
+    void run() throws Exception {
+        SpringApplicationBuilder application = new SpringApplicationBuilder(Spring5MvcRestApplication.class);
+        if ("virtual".equals(threads)) {
+            application.profiles("virtual");
+        }
+        ServletWebServerApplicationContext context = (ServletWebServerApplicationContext) application
+                .properties("server.port=0", "spring.jpa.show-sql=false", "logging.level.root=WARN",
+                        "async.enabled=" + async)
+                .run();
+        int maxConcurrency = Arrays.stream(concurrencyLevels).max().orElse(1);
+
+        try (CloseableHttpClient httpClient = HttpClients.custom()
+                .setMaxConnTotal(maxConcurrency)
+                .setMaxConnPerRoute(maxConcurrency)
+                .build()) {
+            restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+            restTemplate.setErrorHandler(new DefaultResponseErrorHandler() {
+                @Override
+                public boolean hasError(ClientHttpResponse response) {
+                    // non-2xx answers are counted as errors, not thrown
+                    return false;
+                }
+            });
+            baseUrl = "http://localhost:" + context.getWebServer().getPort();
+
+            SeedData.seed(context, rows);
+            List<Long> customerIds = context.getBean(CustomerService.class).getAllCustomers().stream()
+                    .map(customerDTO -> SeedData.idOf(customerDTO.getCustomerUrl()))
+                    .collect(Collectors.toList());
+            List<Long> vendorIds = context.getBean(VendorService.class).getAllVendors().getVendors().stream()
+                    .map(vendorDTO -> SeedData.idOf(vendorDTO.getVendorUrl()))
+                    .collect(Collectors.toList());
+
+            List<EndpointResult> results = new ArrayList<>();
+            for (Endpoint endpoint : endpoints(customerIds, vendorIds)) {
+                for (int concurrency : concurrencyLevels) {
+                    drive(endpoint, concurrency, warmupSeconds);
+                    results.add(measure(endpoint, concurrency));
+                }
+            }
+            report(results);
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Reads come first so the rows the writes add do not change what the list endpoints return mid-run.
+     */
+    private static List<Endpoint> endpoints(List<Long> customerIds, List<Long> vendorIds) {
+        String customers = CustomerController.API_V1_CUSTOMERS;
+        String vendors = VendorController.VENDOR_API_V1_URL;
+        String categories = CategoryController.API_V1_CATEGORIES;
+        Long middleCustomerId = customerIds.get(customerIds.size() / 2);
+        Long middleVendorId = vendorIds.get(vendorIds.size() / 2);
+
+        return Arrays.asList(
+                Endpoint.get("GET customers", customers),
+                Endpoint.get("GET customers page", customers + "?after=" + middleCustomerId + "&limit=100"),
+                Endpoint.get("GET customers export", customers + "export"),
+                Endpoint.get("GET customers search", customers + "search?lastname=Lastname%201&prefix=true&limit=100"),
+                Endpoint.get("GET customer", () -> customers + any(customerIds)),
+                Endpoint.get("GET search", "/api/v1/search?q=Lastnme%20" + (customerIds.size() / 2)),
+                Endpoint.get("GET vendors", vendors),
+                Endpoint.get("GET vendors page", vendors + "?after=" + middleVendorId + "&limit=100"),
+                Endpoint.get("GET vendors export", vendors + "/export"),
+                Endpoint.get("GET vendor", () -> vendors + "/" + any(vendorIds)),
+                Endpoint.get("GET categories", categories),
+                Endpoint.get("GET categories page", categories + "?limit=100"),
+                Endpoint.get("GET category", categories + "/Fruits"),
+                Endpoint.write("POST customer", HttpMethod.POST, () -> customers,
+                        () -> "{\"firstname\":\"Load\",\"lastname\":\"Test\"}"),
+                Endpoint.write("PUT customer", HttpMethod.PUT, () -> customers + any(customerIds),
+                        () -> "{\"firstname\":\"Put\",\"lastname\":\"Test\"}"),
+                Endpoint.write("PATCH customer", HttpMethod.PATCH, () -> customers + any(customerIds),
+                        () -> "{\"lastname\":\"Patched\"}"),
+                Endpoint.write("POST vendor", HttpMethod.POST, () -> vendors,
+                        () -> "{\"name\":\"Load Test Vendor\"}"),
+                Endpoint.write("PUT vendor", HttpMethod.PUT, () -> vendors + "/" + any(vendorIds),
+                        () -> "{\"name\":\"Put Vendor\"}"),
+                Endpoint.write("PATCH vendor", HttpMethod.PATCH, () -> vendors + "/" + any(vendorIds),
+                        () -> "{\"name\":\"Patched Vendor\"}"));
+    }
+
+    private static Long any(List<Long> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private EndpointResult measure(Endpoint endpoint, int concurrency) throws Exception {
+        long start = System.nanoTime();
+        Sample sample = drive(endpoint, concurrency, durationSeconds);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        System.out.printf("%-24s c=%-4d %8.1f req/s  p50=%8.1fus  p99=%8.1fus  p999=%8.1fus  errors=%d%n",
+                endpoint.getName(), concurrency, sample.latencies.getTotalCount() / seconds,
+                sample.latencies.getValueAtPercentile(50) / 1000.0,
+                sample.latencies.getValueAtPercentile(99) / 1000.0,
+                sample.latencies.getValueAtPercentile(99.9) / 1000.0, sample.errors);
+
+        writeDistribution(endpoint, concurrency, sample.latencies);
+        return new EndpointResult(endpoint.getName(), concurrency, sample.latencies, sample.errors, seconds);
+    }
+
+    private Sample drive(Endpoint endpoint, int concurrency, long seconds) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        // one virtual thread per simulated client, so thousands of clients do not cost thousands of platform threads
+        ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            List<Callable<Sample>> tasks = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                tasks.add(() -> {
+                    Sample sample = new Sample();
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        boolean ok;
+                        try {
+                            ok = send(endpoint).getStatusCode().is2xxSuccessful();
+                        } catch (RestClientException e) {
+                            ok = false;
+                        }
+                        sample.latencies.recordValue(System.nanoTime() - start);
+                        if (!ok) {
+                            sample.errors++;
+                        }
+                    }
+                    return sample;
+                });
+            }
+
+            Sample total = new Sample();
+            for (Future<Sample> future : workers.invokeAll(tasks)) {
+                Sample sample = future.get();
+                total.latencies.add(sample.latencies);
+                total.errors += sample.errors;
+            }
+            return total;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private ResponseEntity<byte[]> send(Endpoint endpoint) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(Arrays.asList(MediaType.APPLICATION_JSON));
+        String body = endpoint.nextBody();
+        if (body != null) {
+            headers.setContentType(MediaType.APPLICATION_JSON);
+        }
+
+        return restTemplate.exchange(baseUrl + endpoint.nextPath(), endpoint.getMethod(),
+                new HttpEntity<>(body, headers), byte[].class);
+    }
+
+    private void writeDistribution(Endpoint endpoint, int concurrency, Histogram latencies) throws IOException {
+        outputDirectory.mkdirs();
+        String fileName = endpoint.getName().toLowerCase().replace(' ', '-') + "-c" + concurrency + ".hgrm";
+
+        try (PrintStream out = new PrintStream(new File(outputDirectory, fileName), "UTF-8")) {
+            // scaled so the distribution reads in microseconds, like report.json
+            latencies.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private void report(List<EndpointResult> results) throws IOException {
+        outputDirectory.mkdirs();
+        File report = new File(outputDirectory, "report.json");
+
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report, results);
+        System.out.println("Report written to " + report.getAbsolutePath());
+    }
+
+    private static final class Sample {
+        // auto-resizing, three significant digits
+        private final Histogram latencies = new Histogram(3);
+        private long errors;
+    }
+}
@@ -0,0 +1,43 @@
+package guru.springfamework.reactive;
+
+import org.springframework.data.mapping.model.Property;
+import org.springframework.data.mapping.model.SimpleTypeHolder;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+import org.springframework.data.relational.core.mapping.BasicRelationalPersistentProperty;
+import org.springframework.data.relational.core.mapping.NamingStrategy;
+import org.springframework.data.relational.core.mapping.RelationalPersistentEntity;
+import org.springframework.data.relational.core.mapping.RelationalPersistentProperty;
+
+import javax.persistence.Id;
+import javax.persistence.Version;
+
+/**
+ * Maps the JPA entities of spring5-mvc-rest-app for R2DBC as they are: their javax.persistence {@code @Id} and
+ * {@code @Version} count as the Spring Data ones, which Spring Data JPA refuses to see on the same fields.
+ */
+class JpaAnnotatedMappingContext extends R2dbcMappingContext {
+
+    JpaAnnotatedMappingContext(NamingStrategy namingStrategy) {
+        super(namingStrategy);
+    }
+
+    @Override
+    protected RelationalPersistentProperty createPersistentProperty(Property property,
+                                                                    RelationalPersistentEntity<?> owner,
+                                                                    SimpleTypeHolder simpleTypeHolder) {
+        BasicRelationalPersistentProperty persistentProperty =
+                new BasicRelationalPersistentProperty(property, owner, simpleTypeHolder, getNamingStrategy()) {
+                    @Override
+                    public boolean isIdProperty() {
+                        return super.isIdProperty() || isAnnotationPresent(Id.class);
+                    }
+
+                    @Override
+                    public boolean isVersionProperty() {
+                        return super.isVersionProperty() || isAnnotationPresent(Version.class);
+                    }
+                };
+        persistentProperty.setForceQuote(isForceQuote());
+        return persistentProperty;
+    }
+}
@@ -0,0 +1,18 @@
+package guru.springfamework.reactive;
+
+import guru.springfamework.api.v1.mapper.CustomerMapper;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Serves the v1 API on Netty over R2DBC repositories. The DTOs and mappers are the ones of
+ * spring5-mvc-rest-app; its JPA services and MVC controllers are deliberately not scanned, so no request
+ * thread ever blocks on the database.
+ */
+@SpringBootApplication(scanBasePackageClasses = {ReactiveApplication.class, CustomerMapper.class})
+public class ReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveApplication.class, args);
+	}
+}
@@ -0,0 +1,42 @@
+package guru.springfamework.reactive;
+
+import guru.springfamework.api.v1.mapper.CategoryMapper;
+import guru.springfamework.api.v1.model.CategoryDTO;
+import guru.springfamework.controllers.v1.CategoryController;
+import guru.springfamework.services.ResourceNotFoundException;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Categories have no version column, so unlike the servlet application's catalog ETag these responses carry none
+ * and conditional requests for them are answered in full.
+ */
+@RestController
+@RequestMapping(CategoryController.API_V1_CATEGORIES)
+public class ReactiveCategoryController {
+    private final ReactiveCategoryRepository categoryRepository;
+    private final CategoryMapper categoryMapper;
+
+    public ReactiveCategoryController(ReactiveCategoryRepository categoryRepository, CategoryMapper categoryMapper) {
+        this.categoryRepository = categoryRepository;
+        this.categoryMapper = categoryMapper;
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<CategoryDTO> getAllCategories() {
+        return categoryRepository.findAll(Sort.by("id")).map(categoryMapper::categoryToCategoryDTO);
+    }
+
+    @GetMapping("/{name}")
+    public Mono<CategoryDTO> getCategoryByName(@PathVariable String name) {
+        return categoryRepository.findByName(name)
+                .switchIfEmpty(Mono.error(ResourceNotFoundException::new))
+                .map(categoryMapper::categoryToCategoryDTO);
+    }
+}
@@ -0,0 +1,10 @@
+package guru.springfamework.reactive;
+
+import guru.springfamework.domain.Category;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCategoryRepository extends R2dbcRepository<Category, Long> {
+
+    Mono<Category> findByName(String name);
+}
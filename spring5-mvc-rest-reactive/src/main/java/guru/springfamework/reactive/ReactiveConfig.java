@@ -0,0 +1,31 @@
+package guru.springfamework.reactive;
+
+import guru.springfamework.config.ResourceLinksConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+import org.springframework.data.relational.core.mapping.NamingStrategy;
+
+/**
+ * Shares the servlet application's ResourceLinksConfig, so the DTOs get their links written from the ids they
+ * carry here too; without a servlet request they stay relative.
+ */
+@Configuration
+@Import(ResourceLinksConfig.class)
+public class ReactiveConfig {
+
+    /**
+     * Replaces Spring Boot's mapping context, see {@link JpaAnnotatedMappingContext}.
+     */
+    @Bean
+    public R2dbcMappingContext r2dbcMappingContext(ObjectProvider<NamingStrategy> namingStrategy,
+                                                   R2dbcCustomConversions r2dbcCustomConversions) {
+        R2dbcMappingContext mappingContext =
+                new JpaAnnotatedMappingContext(namingStrategy.getIfAvailable(() -> NamingStrategy.INSTANCE));
+        mappingContext.setSimpleTypeHolder(r2dbcCustomConversions.getSimpleTypeHolder());
+        return mappingContext;
+    }
+}
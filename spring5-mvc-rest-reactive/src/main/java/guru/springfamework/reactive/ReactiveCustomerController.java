@@ -0,0 +1,119 @@
+package guru.springfamework.reactive;
+
+import guru.springfamework.api.v1.mapper.CustomerMapper;
+import guru.springfamework.controllers.v1.CustomerController;
+import guru.springfamework.controllers.v1.VersionETags;
+import guru.springfamework.domain.Customer;
+import guru.springfamework.services.ResourceNotFoundException;
+import guru.springframework.model.CustomerDTO;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping(CustomerController.API_V1_CUSTOMERS)
+public class ReactiveCustomerController {
+    private final ReactiveCustomerRepository customerRepository;
+    private final CustomerMapper customerMapper;
+
+    public ReactiveCustomerController(ReactiveCustomerRepository customerRepository, CustomerMapper customerMapper) {
+        this.customerRepository = customerRepository;
+        this.customerMapper = customerMapper;
+    }
+
+    /**
+     * Every customer, streamed from the result set as the client consumes it: a JSON array, or one customer
+     * per line for application/x-ndjson.
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<CustomerDTO> getListOfCustomer() {
+        return customerRepository.findAll(Sort.by("id")).map(this::toDto);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<CustomerDTO>> getCustomerById(@PathVariable Long id) {
+        // a matching If-None-Match is answered with 304 by the result handler, before serialization
+        return findCustomer(id).map(customer -> ResponseEntity.ok()
+                .eTag(VersionETags.of(customer.getVersion()))
+                .body(toDto(customer)));
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<CustomerDTO> createNewCustomer(@RequestBody Mono<CustomerDTO> customerDTO) {
+        return customerDTO.map(customerMapper::customerDtoToCustomer)
+                .flatMap(customerRepository::save)
+                .map(this::toDto);
+    }
+
+    /**
+     * Answers 412 unless the customer is at the If-Match version, if one is given. It is saved with the version it
+     * was read at, so a concurrent write in between fails with 412 as well.
+     */
+    @PutMapping("/{id}")
+    public Mono<CustomerDTO> updateCustomer(@PathVariable Long id, @RequestBody Mono<CustomerDTO> customerDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = VersionETags.fromIfMatch(ifMatch);
+        return customerDTO.flatMap(body -> findCustomer(id, expectedVersion)
+                .flatMap(customer -> {
+                    customer.setFirstName(body.getFirstname());
+                    customer.setLastName(body.getLastname());
+                    return customerRepository.save(customer);
+                }))
+                .map(this::toDto);
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<CustomerDTO> patchCustomer(@PathVariable Long id, @RequestBody Mono<CustomerDTO> customerDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = VersionETags.fromIfMatch(ifMatch);
+        return customerDTO.flatMap(body -> findCustomer(id, expectedVersion)
+                .flatMap(customer -> {
+                    if (body.getFirstname() != null) {
+                        customer.setFirstName(body.getFirstname());
+                    }
+                    if (body.getLastname() != null) {
+                        customer.setLastName(body.getLastname());
+                    }
+                    return customerRepository.save(customer);
+                }))
+                .map(this::toDto);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<Void> deleteCustomer(@PathVariable Long id) {
+        return customerRepository.deleteCustomerById(id)
+                .flatMap(deleted -> deleted == 0 ? Mono.error(new ResourceNotFoundException()) : Mono.empty());
+    }
+
+    private Mono<Customer> findCustomer(Long id, Long expectedVersion) {
+        return findCustomer(id).flatMap(customer ->
+                expectedVersion == null || expectedVersion.equals(customer.getVersion())
+                        ? Mono.just(customer)
+                        : Mono.error(new ObjectOptimisticLockingFailureException(Customer.class, id)));
+    }
+
+    private Mono<Customer> findCustomer(Long id) {
+        return customerRepository.findById(id).switchIfEmpty(Mono.error(ResourceNotFoundException::new));
+    }
+
+    private CustomerDTO toDto(Customer customer) {
+        return customerMapper.customerToCustomerDTO(customer);
+    }
+}
@@ -0,0 +1,17 @@
+package guru.springfamework.reactive;
+
+import guru.springfamework.domain.Customer;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCustomerRepository extends R2dbcRepository<Customer, Long> {
+
+    /**
+     * Deletes in one statement and reports how many rows went, so a missing customer needs no lookup first.
+     */
+    @Modifying
+    @Query("delete from customer where id = :id")
+    Mono<Integer> deleteCustomerById(Long id);
+}
@@ -0,0 +1,26 @@
+package guru.springfamework.reactive;
+
+import guru.springfamework.services.ResourceNotFoundException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * The answers of the servlet application's RestResponseEntityExceptionHandler, for the reactive controllers.
+ */
+@RestControllerAdvice
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<Object> handleNotFoundException(Exception exception) {
+        return new ResponseEntity<>("Resource Not Found", new HttpHeaders(), HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleVersionConflict(Exception exception) {
+        return new ResponseEntity<>("Precondition Failed", new HttpHeaders(), HttpStatus.PRECONDITION_FAILED);
+    }
+}
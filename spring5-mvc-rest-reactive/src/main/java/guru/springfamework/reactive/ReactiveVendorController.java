@@ -0,0 +1,115 @@
+package guru.springfamework.reactive;
+
+import guru.springfamework.api.v1.mapper.VendorMapper;
+import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.controllers.v1.VendorController;
+import guru.springfamework.controllers.v1.VersionETags;
+import guru.springfamework.domain.Vendor;
+import guru.springfamework.services.ResourceNotFoundException;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping(VendorController.VENDOR_API_V1_URL)
+public class ReactiveVendorController {
+    private final ReactiveVendorRepository vendorRepository;
+    private final VendorMapper vendorMapper;
+
+    public ReactiveVendorController(ReactiveVendorRepository vendorRepository, VendorMapper vendorMapper) {
+        this.vendorRepository = vendorRepository;
+        this.vendorMapper = vendorMapper;
+    }
+
+    /**
+     * Every vendor, streamed from the result set as the client consumes it: a JSON array, or one vendor per
+     * line for application/x-ndjson.
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<VendorDTO> getVendorList() {
+        return vendorRepository.findAll(Sort.by("id")).map(this::toDto);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<VendorDTO>> getVendorById(@PathVariable Long id) {
+        // a matching If-None-Match is answered with 304 by the result handler, before serialization
+        return findVendor(id).map(vendor -> ResponseEntity.ok()
+                .eTag(VersionETags.of(vendor.getVersion()))
+                .body(toDto(vendor)));
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<VendorDTO> createNewVendor(@RequestBody Mono<VendorDTO> vendorDTO) {
+        return vendorDTO.map(vendorMapper::vendorDtoToVendor)
+                .flatMap(vendorRepository::save)
+                .map(this::toDto);
+    }
+
+    /**
+     * Answers 412 unless the vendor is at the If-Match version, if one is given. It is saved with the version it
+     * was read at, so a concurrent write in between fails with 412 as well.
+     */
+    @PutMapping("/{id}")
+    public Mono<VendorDTO> updateVendor(@PathVariable Long id, @RequestBody Mono<VendorDTO> vendorDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = VersionETags.fromIfMatch(ifMatch);
+        return vendorDTO.flatMap(body -> findVendor(id, expectedVersion)
+                .flatMap(vendor -> {
+                    vendor.setName(body.getName());
+                    return vendorRepository.save(vendor);
+                }))
+                .map(this::toDto);
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<VendorDTO> patchVendor(@PathVariable Long id, @RequestBody Mono<VendorDTO> vendorDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = VersionETags.fromIfMatch(ifMatch);
+        return vendorDTO.flatMap(body -> findVendor(id, expectedVersion)
+                .flatMap(vendor -> {
+                    if (body.getName() != null) {
+                        vendor.setName(body.getName());
+                    }
+                    return vendorRepository.save(vendor);
+                }))
+                .map(this::toDto);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<Void> deleteVendor(@PathVariable Long id) {
+        return vendorRepository.deleteVendorById(id)
+                .flatMap(deleted -> deleted == 0 ? Mono.error(new ResourceNotFoundException()) : Mono.empty());
+    }
+
+    private Mono<Vendor> findVendor(Long id, Long expectedVersion) {
+        return findVendor(id).flatMap(vendor ->
+                expectedVersion == null || expectedVersion.equals(vendor.getVersion())
+                        ? Mono.just(vendor)
+                        : Mono.error(new ObjectOptimisticLockingFailureException(Vendor.class, id)));
+    }
+
+    private Mono<Vendor> findVendor(Long id) {
+        return vendorRepository.findById(id).switchIfEmpty(Mono.error(ResourceNotFoundException::new));
+    }
+
+    private VendorDTO toDto(Vendor vendor) {
+        return vendorMapper.vendorToVendorDTO(vendor);
+    }
+}
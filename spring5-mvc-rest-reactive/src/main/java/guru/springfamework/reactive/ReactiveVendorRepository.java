@@ -0,0 +1,14 @@
+package guru.springfamework.reactive;
+
+import guru.springfamework.domain.Vendor;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveVendorRepository extends R2dbcRepository<Vendor, Long> {
+
+    @Modifying
+    @Query("delete from vendor where id = :id")
+    Mono<Integer> deleteVendorById(Long id);
+}
@@ -0,0 +1,4 @@
+-- the seed data of spring5-mvc-rest-app's Bootstrap
+insert into category (name) values ('Fruits'), ('Dried'), ('Fresh'), ('Exotic'), ('Nuts');
+
+insert into customer (version, first_name, last_name) values (0, 'Michele', 'Weston'), (0, 'Sam', 'Axe');
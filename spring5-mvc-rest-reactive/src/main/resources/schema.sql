@@ -0,0 +1,19 @@
+-- the tables Hibernate generates for spring5-mvc-rest-app, with identity ids: R2DBC reads back a generated key
+-- but cannot draw ids from a sequence itself
+create table category (
+    id bigint generated by default as identity primary key,
+    name varchar(255)
+);
+
+create table customer (
+    id bigint generated by default as identity primary key,
+    version bigint,
+    first_name varchar(255),
+    last_name varchar(255)
+);
+
+create table vendor (
+    id bigint generated by default as identity primary key,
+    version bigint,
+    name varchar(255)
+);
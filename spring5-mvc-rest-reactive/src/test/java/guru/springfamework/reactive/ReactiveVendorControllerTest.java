@@ -0,0 +1,117 @@
+package guru.springfamework.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springfamework.api.v1.mapper.VendorMapper;
+import guru.springfamework.api.v1.model.VendorDTO;
+import guru.springfamework.config.ResourceLinksConfig;
+import guru.springfamework.controllers.v1.VendorController;
+import guru.springfamework.domain.Vendor;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class ReactiveVendorControllerTest {
+
+    @Mock
+    ReactiveVendorRepository vendorRepository;
+
+    WebTestClient webTestClient;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new ResourceLinksConfig().resourceLinksModule())
+                .build();
+        webTestClient = WebTestClient
+                .bindToController(new ReactiveVendorController(vendorRepository, VendorMapper.INSTANCE))
+                .controllerAdvice(new ReactiveExceptionHandler())
+                .httpMessageCodecs(codecs -> codecs.defaultCodecs()
+                        .jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper)))
+                .build();
+    }
+
+    @Test
+    public void getVendorListStreamsEveryVendor() throws Exception {
+        given(vendorRepository.findAll(any(Sort.class))).willReturn(Flux.just(
+                new Vendor(1L, 0L, "Vendor 1"), new Vendor(2L, 0L, "Vendor 2")));
+
+        webTestClient.get().uri(VendorController.VENDOR_API_V1_URL)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(VendorDTO.class).isEqualTo(Arrays.asList(
+                        new VendorDTO("Vendor 1", VendorController.VENDOR_API_V1_URL + "/1"),
+                        new VendorDTO("Vendor 2", VendorController.VENDOR_API_V1_URL + "/2")));
+    }
+
+    @Test
+    public void getVendorByIdNotFound() throws Exception {
+        given(vendorRepository.findById(1L)).willReturn(Mono.empty());
+
+        webTestClient.get().uri(VendorController.VENDOR_API_V1_URL + "/1")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void getVendorByIdNotModified() throws Exception {
+        given(vendorRepository.findById(1L)).willReturn(Mono.just(new Vendor(1L, 3L, "Vendor 1")));
+
+        webTestClient.get().uri(VendorController.VENDOR_API_V1_URL + "/1")
+                .ifNoneMatch("\"3\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"3\"");
+    }
+
+    @Test
+    public void patchVendorPreconditionFailed() throws Exception {
+        given(vendorRepository.findById(1L)).willReturn(Mono.just(new Vendor(1L, 4L, "Vendor 1")));
+
+        webTestClient.patch().uri(VendorController.VENDOR_API_V1_URL + "/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .bodyValue(new VendorDTO("Renamed", null))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        verify(vendorRepository, never()).save(any());
+    }
+
+    @Test
+    public void patchVendorKeepsTheVersionItWasReadAt() throws Exception {
+        given(vendorRepository.findById(1L)).willReturn(Mono.just(new Vendor(1L, 3L, "Vendor 1")));
+        given(vendorRepository.save(new Vendor(1L, 3L, "Renamed"))).willAnswer(invocation -> {
+            Vendor vendor = invocation.getArgument(0);
+            return vendor.getVersion() == 3L ? Mono.just(vendor) : Mono.error(new IllegalStateException());
+        });
+
+        webTestClient.patch().uri(VendorController.VENDOR_API_V1_URL + "/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new VendorDTO("Renamed", null))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(VendorDTO.class)
+                .isEqualTo(new VendorDTO("Renamed", VendorController.VENDOR_API_V1_URL + "/1"));
+    }
+}